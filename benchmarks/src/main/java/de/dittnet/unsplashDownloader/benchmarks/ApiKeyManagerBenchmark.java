@@ -0,0 +1,61 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import de.dittnet.unsplashDownloader.ApiKeyManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key selection with one caller and with many concurrent callers sharing the manager
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiKeyManagerBenchmark {
+
+    @Param({"1", "4"})
+    public int keys;
+
+    private Path workDir;
+    private ApiKeyManager apiKeyManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("bench-keys");
+        Path config = workDir.resolve("config").resolve("config.properties");
+        Files.createDirectories(config.getParent());
+
+        StringBuilder tokens = new StringBuilder();
+        for (int i = 0; i < keys; i++) {
+            if (i > 0) {
+                tokens.append(',');
+            }
+            tokens.append(String.format("benchkey%032d", i));
+        }
+        Files.writeString(config, "unsplash.access.tokens=" + tokens + "\n");
+
+        apiKeyManager = new ApiKeyManager(workDir.toString());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String uncontended() {
+        return apiKeyManager.getNextAvailableKey();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String contended() {
+        return apiKeyManager.getNextAvailableKey();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+}
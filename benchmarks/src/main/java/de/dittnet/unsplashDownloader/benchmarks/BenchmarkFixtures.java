@@ -0,0 +1,151 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.dittnet.unsplashDownloader.model.Photo;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic inputs shared by the benchmarks. Everything is generated from a fixed seed so
+ * runs before and after a change see the same data.
+ */
+final class BenchmarkFixtures {
+    private static final String[] TAGS = {
+        "nature", "sea", "mountain", "city", "night", "forest", "portrait", "architecture",
+        "travel", "sky", "sunset", "animal", "winter", "beach", "street", "food"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A photo-like JPEG: smooth gradients plus noise, so it compresses like a real photo
+     */
+    static void writeJpeg(Path file, int width, int height) throws IOException {
+        Random random = new Random(width * 31L + height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = (x * 255 / width + random.nextInt(24)) & 0xff;
+                int g = (y * 255 / height + random.nextInt(24)) & 0xff;
+                int b = ((x + y) * 127 / (width + height) + random.nextInt(24)) & 0xff;
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        Files.createDirectories(file.getParent());
+        ImageIO.write(image, "jpg", file.toFile());
+    }
+
+    static List<Photo> samplePhotos(int count, long seed) {
+        Random random = new Random(seed);
+        List<Photo> photos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Photo photo = new Photo();
+            photo.setId(photoId(random));
+            photo.setTitle("Photo " + i);
+            photo.setDescription("A synthetic photo description number " + i + " with some words in it");
+            photo.setWidth(3000 + random.nextInt(3000));
+            photo.setHeight(2000 + random.nextInt(2000));
+            photo.setColor(String.format("#%06x", random.nextInt(0x1000000)));
+            photo.setLikes(random.nextInt(5000));
+
+            Photo.User user = new Photo.User();
+            user.setUsername("photographer" + random.nextInt(200));
+            user.setName("Photographer " + random.nextInt(200));
+            photo.setUser(user);
+
+            Photo.Urls urls = new Photo.Urls();
+            String base = "https://images.unsplash.com/photo-" + photo.getId();
+            urls.setRaw(base + "?ixid=abc");
+            urls.setFull(base + "?ixid=abc&q=85&fm=jpg");
+            urls.setRegular(base + "?ixid=abc&w=1080");
+            urls.setSmall(base + "?ixid=abc&w=400");
+            urls.setThumb(base + "?ixid=abc&w=200");
+            photo.setUrls(urls);
+
+            List<Photo.Tag> tags = new ArrayList<>();
+            for (int t = 0; t < 3 + random.nextInt(5); t++) {
+                Photo.Tag tag = new Photo.Tag();
+                tag.setType("search");
+                tag.setTitle(TAGS[random.nextInt(TAGS.length)]);
+                tags.add(tag);
+            }
+            photo.setTags(tags);
+            photos.add(photo);
+        }
+        return photos;
+    }
+
+    /**
+     * A photo page shaped like the real API response, including the fields the model ignores
+     */
+    static String samplePageJson(ObjectMapper objectMapper, List<Photo> photos) throws IOException {
+        ArrayNode page = objectMapper.createArrayNode();
+        for (Photo photo : photos) {
+            ObjectNode node = objectMapper.valueToTree(photo);
+            node.put("slug", "synthetic-" + photo.getId());
+            node.put("created_at", "2023-05-14T09:21:33Z");
+            node.put("updated_at", "2024-01-02T11:02:45Z");
+            node.put("promoted_at", (String) null);
+            node.put("blur_hash", "LKO2?U%2Tw=w]~RBVZRi};RPxuwH");
+            node.put("alt_description", "a synthetic alt description for " + photo.getId());
+            node.putArray("breadcrumbs");
+            node.putObject("links")
+                .put("self", "https://api.unsplash.com/photos/" + photo.getId())
+                .put("html", "https://unsplash.com/photos/" + photo.getId())
+                .put("download", "https://unsplash.com/photos/" + photo.getId() + "/download")
+                .put("download_location", "https://api.unsplash.com/photos/" + photo.getId() + "/download");
+            node.put("liked_by_user", false);
+            node.putArray("current_user_collections");
+            node.putNull("sponsorship");
+            node.putObject("topic_submissions");
+
+            ObjectNode user = (ObjectNode) node.get("user");
+            user.put("id", "u" + photo.getId());
+            user.put("bio", "Synthetic photographer biography with a couple of sentences in it.");
+            user.put("location", "Somewhere");
+            user.put("total_photos", 1234);
+            user.put("total_likes", 56);
+            user.putObject("profile_image")
+                .put("small", "https://images.unsplash.com/profile-1?w=32")
+                .put("medium", "https://images.unsplash.com/profile-1?w=64")
+                .put("large", "https://images.unsplash.com/profile-1?w=128");
+            user.putObject("links")
+                .put("self", "https://api.unsplash.com/users/" + photo.getUser().getUsername())
+                .put("photos", "https://api.unsplash.com/users/" + photo.getUser().getUsername() + "/photos");
+            page.add(node);
+        }
+        return objectMapper.writeValueAsString(page);
+    }
+
+    static String photoId(Random random) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        StringBuilder id = new StringBuilder(11);
+        for (int i = 0; i < 11; i++) {
+            id.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return id.toString();
+    }
+
+    static void deleteRecursively(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.dittnet.unsplashDownloader.model.DownloadState;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * download_state.json round trips the way UnsplashDownloader does them: saveState runs
+ * after every photo, loadOrCreateState once per run
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownloadStateBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int downloadedPhotos;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Path workDir;
+    private File stateFile;
+    private DownloadState state;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("bench-state");
+        stateFile = workDir.resolve("download_state.json").toFile();
+
+        Random random = new Random(7);
+        state = new DownloadState();
+        state.setUsername("benchmark");
+        state.setTotalPhotos(downloadedPhotos);
+        for (int i = 0; i < downloadedPhotos; i++) {
+            state.getDownloadedPhotos().add(BenchmarkFixtures.photoId(random));
+        }
+        objectMapper.writeValue(stateFile, state);
+    }
+
+    @Benchmark
+    public long saveState() throws Exception {
+        objectMapper.writeValue(stateFile, state);
+        return stateFile.length();
+    }
+
+    @Benchmark
+    public DownloadState loadState() throws Exception {
+        return objectMapper.readValue(stateFile, DownloadState.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+}
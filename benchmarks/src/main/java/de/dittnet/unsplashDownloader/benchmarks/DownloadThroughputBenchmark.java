@@ -0,0 +1,73 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import de.dittnet.unsplashDownloader.UnsplashDownloader;
+import de.dittnet.unsplashDownloader.mock.MockUnsplashConfig;
+import de.dittnet.unsplashDownloader.mock.MockUnsplashServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A complete downloadUserPhotos run against the local mock server: listing, detail fetches,
+ * image transfer, EXIF writing, blob store and sidecar. Each invocation starts from an empty
+ * output directory. The downloader's fixed one-second pause per listing page is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DownloadThroughputBenchmark {
+
+    @Param({"60"})
+    public int photos;
+
+    // Per-request latency of the mock, 0 for a pure local run
+    @Param({"0", "50"})
+    public long latencyMs;
+
+    private MockUnsplashServer server;
+    private Path workDir;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        MockUnsplashConfig config = new MockUnsplashConfig();
+        config.setPort(0);
+        config.setUsers(1);
+        config.setPhotosPerUser(photos);
+        config.setLatencyMs(latencyMs);
+        config.setRateLimitPerHour(Integer.MAX_VALUE);
+        server = new MockUnsplashServer(config).start();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareOutput() throws Exception {
+        workDir = Files.createTempDirectory("bench-download");
+        Path keys = workDir.resolve(".unsplash-downloader").resolve("config").resolve("config.properties");
+        Files.createDirectories(keys.getParent());
+        Files.writeString(keys, "unsplash.access.token=benchkey00000000000000000000000000000000\n");
+    }
+
+    @Benchmark
+    public long downloadUser() throws Exception {
+        UnsplashDownloader downloader = new UnsplashDownloader(workDir.resolve("photos").toString());
+        downloader.setApiBaseUrl(server.getBaseUrl());
+        downloader.downloadUserPhotos("mockuser01");
+        try (var files = Files.list(workDir.resolve("photos"))) {
+            return files.count();
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void cleanOutput() throws Exception {
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.close();
+    }
+}
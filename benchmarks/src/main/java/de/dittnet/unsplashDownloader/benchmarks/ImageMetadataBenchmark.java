@@ -0,0 +1,59 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import de.dittnet.unsplashDownloader.ImageMetadataHandler;
+import de.dittnet.unsplashDownloader.model.Photo;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EXIF rewrite of a freshly downloaded JPEG, as done once per photo during ingest
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageMetadataBenchmark {
+
+    @Param({"1080x720", "2400x1600", "4000x2667"})
+    public String size;
+
+    private Path workDir;
+    private Path source;
+    private File target;
+    private Photo photo;
+    private final ImageMetadataHandler handler = new ImageMetadataHandler();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String[] dimensions = size.split("x");
+        workDir = Files.createTempDirectory("bench-metadata");
+        source = workDir.resolve("source.jpg");
+        BenchmarkFixtures.writeJpeg(source, Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        target = workDir.resolve("photo.jpg").toFile();
+        photo = BenchmarkFixtures.samplePhotos(1, 42).get(0);
+    }
+
+    @Setup(Level.Invocation)
+    public void copySource() throws Exception {
+        // addMetadata rewrites the file in place, so every call needs an untouched copy
+        Files.copy(source, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Benchmark
+    public long addMetadata() throws Exception {
+        handler.addMetadata(target, photo);
+        return target.length();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+}
@@ -0,0 +1,38 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.dittnet.unsplashDownloader.model.Photo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one page of /users/{username}/photos, as fetchPhotoPage does for every page
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoPageParseBenchmark {
+
+    @Param({"10", "30"})
+    public int perPage;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private String pageJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pageJson = BenchmarkFixtures.samplePageJson(objectMapper, BenchmarkFixtures.samplePhotos(perPage, 11));
+    }
+
+    @Benchmark
+    public List<Photo> parsePage() throws Exception {
+        return objectMapper.readValue(pageJson, new TypeReference<List<Photo>>() {});
+    }
+}
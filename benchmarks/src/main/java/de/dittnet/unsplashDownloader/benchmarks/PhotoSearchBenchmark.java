@@ -0,0 +1,105 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import de.dittnet.unsplashDownloader.UnsplashDownloaderApplication;
+import de.dittnet.unsplashDownloader.model.CatalogEntry;
+import de.dittnet.unsplashDownloader.model.Photo;
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import de.dittnet.unsplashDownloader.service.PhotoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text search against an H2 database seeded with a synthetic catalog. Runs the
+ * application context without the web server, against a throwaway base directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoSearchBenchmark {
+
+    @Param({"10000"})
+    public int photos;
+
+    // A frequent tag, a photographer name and a term that matches nothing
+    @Param({"sea", "Photographer 17", "zzzz"})
+    public String term;
+
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+    private PhotoRepository photoRepository;
+    private PhotoService photoService;
+    private final Pageable firstPage = PageRequest.of(0, 20, Sort.by("downloadDate").descending());
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("bench-search");
+        context = new SpringApplicationBuilder(UnsplashDownloaderApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--app.base-directory=" + workDir,
+                     "--spring.main.banner-mode=off",
+                     "--logging.level.root=WARN",
+                     "--logging.level.de.dittnet.unsplashDownloader=WARN");
+        photoRepository = context.getBean(PhotoRepository.class);
+        photoService = context.getBean(PhotoService.class);
+
+        List<CatalogEntry> batch = new ArrayList<>();
+        for (Photo photo : BenchmarkFixtures.samplePhotos(photos, 3)) {
+            batch.add(toEntry(photo));
+            if (batch.size() == 500) {
+                photoService.insertPhotoBatch(batch);
+                batch.clear();
+            }
+        }
+        photoService.insertPhotoBatch(batch);
+    }
+
+    @Benchmark
+    public Object searchPhotos() {
+        return photoRepository.searchPhotos(term, firstPage).getContent();
+    }
+
+    @Benchmark
+    public Object searchPhotoCards() {
+        return photoService.searchPhotoCards(term, firstPage).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+
+    private static CatalogEntry toEntry(Photo photo) {
+        CatalogEntry entry = new CatalogEntry();
+        entry.setId(photo.getId());
+        entry.setTitle(photo.getTitle());
+        entry.setDescription(photo.getDescription());
+        entry.setPhotographerName(photo.getUser().getName());
+        entry.setPhotographerUsername(photo.getUser().getUsername());
+        entry.setDownloadDate(LocalDateTime.now().minusMinutes(photo.getLikes()));
+        entry.setUnsplashUrl(photo.getUrls().getFull());
+        entry.setImageWidth(photo.getWidth());
+        entry.setImageHeight(photo.getHeight());
+        entry.setColor(photo.getColor());
+        entry.setLikes(photo.getLikes());
+        entry.setTags(photo.getTags());
+        return entry;
+    }
+}
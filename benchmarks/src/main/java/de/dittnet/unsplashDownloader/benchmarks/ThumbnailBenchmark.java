@@ -0,0 +1,64 @@
+package de.dittnet.unsplashDownloader.benchmarks;
+
+import de.dittnet.unsplashDownloader.service.ThumbnailService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 300px thumbnail generation from originals of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThumbnailBenchmark {
+
+    @Param({"1080x720", "2400x1600", "4000x2667", "6000x4000"})
+    public String size;
+
+    private Path workDir;
+    private File original;
+    private File thumbnail;
+    private ThumbnailService thumbnailService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String[] dimensions = size.split("x");
+        workDir = Files.createTempDirectory("bench-thumbnails");
+        Path source = workDir.resolve("photos").resolve("original.jpg");
+        BenchmarkFixtures.writeJpeg(source, Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        original = source.toFile();
+
+        // The service is normally configured by Spring through @Value
+        thumbnailService = new ThumbnailService();
+        Field thumbnailsPath = ThumbnailService.class.getDeclaredField("thumbnailsPath");
+        thumbnailsPath.setAccessible(true);
+        thumbnailsPath.set(thumbnailService, workDir.resolve("thumbnails").toString());
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteThumbnail() {
+        // generateThumbnail returns an existing thumbnail without work, so start clean each call
+        if (thumbnail != null) {
+            thumbnail.delete();
+        }
+    }
+
+    @Benchmark
+    public File generateThumbnail() {
+        thumbnail = thumbnailService.generateThumbnail("bench", original);
+        return thumbnail;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(workDir);
+    }
+}
@@ -0,0 +1,160 @@
+package de.dittnet.unsplashDownloader.mock;
+
+/**
+ * Knobs for the mock server. Every value can be given on the command line as --name=value,
+ * e.g. --port=9099 --photos-per-user=500 --latency-ms=80 --server-error-rate=0.01
+ */
+public class MockUnsplashConfig {
+    private int port = 9099;
+    private int users = 20;
+    private int photosPerUser = 300;
+    private long seed = 42;
+
+    // Added to every API and image response, jitter is uniform in [0, latencyJitterMs]
+    private long latencyMs = 0;
+    private long latencyJitterMs = 0;
+
+    // Requests per Client-ID per hour before the API answers 403, like a demo app's 50/hour
+    private int rateLimitPerHour = 5000;
+
+    // Probability of an injected failure on any API request
+    private double forbiddenRate = 0.0;
+    private double serverErrorRate = 0.0;
+
+    private int imageWidth = 1600;
+    private int imageHeight = 1067;
+    private int imageCacheSize = 64;
+
+    public static MockUnsplashConfig fromArgs(String[] args) {
+        MockUnsplashConfig config = new MockUnsplashConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            config.set(name, value);
+        }
+        return config;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "port" -> port = Integer.parseInt(value);
+            case "users" -> users = Integer.parseInt(value);
+            case "photos-per-user" -> photosPerUser = Integer.parseInt(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "latency-ms" -> latencyMs = Long.parseLong(value);
+            case "latency-jitter-ms" -> latencyJitterMs = Long.parseLong(value);
+            case "rate-limit-per-hour" -> rateLimitPerHour = Integer.parseInt(value);
+            case "forbidden-rate" -> forbiddenRate = Double.parseDouble(value);
+            case "server-error-rate" -> serverErrorRate = Double.parseDouble(value);
+            case "image-width" -> imageWidth = Integer.parseInt(value);
+            case "image-height" -> imageHeight = Integer.parseInt(value);
+            case "image-cache-size" -> imageCacheSize = Integer.parseInt(value);
+            default -> throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getPhotosPerUser() {
+        return photosPerUser;
+    }
+
+    public void setPhotosPerUser(int photosPerUser) {
+        this.photosPerUser = photosPerUser;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public long getLatencyJitterMs() {
+        return latencyJitterMs;
+    }
+
+    public void setLatencyJitterMs(long latencyJitterMs) {
+        this.latencyJitterMs = latencyJitterMs;
+    }
+
+    public int getRateLimitPerHour() {
+        return rateLimitPerHour;
+    }
+
+    public void setRateLimitPerHour(int rateLimitPerHour) {
+        this.rateLimitPerHour = rateLimitPerHour;
+    }
+
+    public double getForbiddenRate() {
+        return forbiddenRate;
+    }
+
+    public void setForbiddenRate(double forbiddenRate) {
+        this.forbiddenRate = forbiddenRate;
+    }
+
+    public double getServerErrorRate() {
+        return serverErrorRate;
+    }
+
+    public void setServerErrorRate(double serverErrorRate) {
+        this.serverErrorRate = serverErrorRate;
+    }
+
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public void setImageWidth(int imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    public void setImageHeight(int imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+
+    public int getImageCacheSize() {
+        return imageCacheSize;
+    }
+
+    public void setImageCacheSize(int imageCacheSize) {
+        this.imageCacheSize = imageCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("port=%d users=%d photosPerUser=%d latency=%d+%dms rateLimit=%d/h forbidden=%.3f serverError=%.3f image=%dx%d",
+            port, users, photosPerUser, latencyMs, latencyJitterMs, rateLimitPerHour, forbiddenRate, serverErrorRate, imageWidth, imageHeight);
+    }
+}
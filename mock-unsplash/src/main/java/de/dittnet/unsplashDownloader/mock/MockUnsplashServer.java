@@ -0,0 +1,381 @@
+package de.dittnet.unsplashDownloader.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for api.unsplash.com and its image CDN. Serves synthetic users and photos
+ * with configurable latency, per-key rate limits and injected 403/5xx responses, so the
+ * downloader can be load tested without network access or API quota.
+ *
+ * Run standalone with java -jar mock-unsplash.jar [--name=value ...], or embed it:
+ * try (MockUnsplashServer server = new MockUnsplashServer(config).start()) { ... server.getBaseUrl() ... }
+ */
+public class MockUnsplashServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MockUnsplashServer.class);
+    private static final int DEFAULT_PER_PAGE = 10;
+    private static final int MAX_PER_PAGE = 30;
+
+    private final MockUnsplashConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> responsesByStatus = new ConcurrentHashMap<>();
+    private final LongAdder imageBytes = new LongAdder();
+    private HttpServer server;
+    private ExecutorService executor;
+    private SyntheticCatalog catalog;
+
+    public MockUnsplashServer(MockUnsplashConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws IOException {
+        MockUnsplashServer server = new MockUnsplashServer(MockUnsplashConfig.fromArgs(args)).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        logger.info("Users: {} .. {}", server.catalog.username(0), server.catalog.username(server.config.getUsers() - 1));
+        logger.info("Point the downloader at it with app.unsplash.api-base-url={}", server.getBaseUrl());
+    }
+
+    public MockUnsplashServer start() throws IOException {
+        if (config.getUsers() < 1 || config.getUsers() > (1 << 20) || config.getPhotosPerUser() < 0 || config.getPhotosPerUser() > (1 << 28)) {
+            throw new IllegalArgumentException("users must be 1..2^20 and photos-per-user 0..2^28");
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.getPort()), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-unsplash");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        catalog = new SyntheticCatalog(config, objectMapper, getBaseUrl());
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Mock Unsplash server listening on {} ({})", getBaseUrl(), config);
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Response counts by HTTP status, for checking what a load test actually saw
+     */
+    public Map<Integer, Long> getResponsesByStatus() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        responsesByStatus.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public long getImageBytesServed() {
+        return imageBytes.sum();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            logger.info("Mock Unsplash server stopped. Responses by status: {}", getResponsesByStatus());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+
+            if (segments.length == 2 && segments[0].equals("__mock") && segments[1].equals("stats")) {
+                ObjectNode stats = objectMapper.createObjectNode();
+                stats.putPOJO("responsesByStatus", getResponsesByStatus());
+                stats.put("imageBytesServed", getImageBytesServed());
+                sendJson(exchange, 200, stats);
+                return;
+            }
+
+            simulateLatency();
+
+            // The CDN needs no API key and does not count against the rate limit
+            if (segments.length == 2 && segments[0].equals("images")) {
+                if (injectServerError(exchange)) {
+                    return;
+                }
+                serveImage(exchange, segments[1], query);
+                return;
+            }
+
+            if (!authorize(exchange)) {
+                return;
+            }
+
+            if (segments.length == 2 && segments[0].equals("users")) {
+                int userIndex = catalog.userIndex(segments[1]);
+                if (userIndex < 0) {
+                    sendError(exchange, 404, "Couldn't find User");
+                    return;
+                }
+                sendJson(exchange, 200, catalog.user(userIndex));
+            } else if (segments.length == 3 && segments[0].equals("users") && segments[2].equals("photos")) {
+                int userIndex = catalog.userIndex(segments[1]);
+                if (userIndex < 0) {
+                    sendError(exchange, 404, "Couldn't find User");
+                    return;
+                }
+                servePhotoPage(exchange, query, userIndex);
+            } else if (segments.length == 3 && segments[0].equals("users") && segments[2].equals("likes")) {
+                // Everyone's photos stand in for likes, collections and topics
+                if (catalog.userIndex(segments[1]) < 0) {
+                    sendError(exchange, 404, "Couldn't find User");
+                    return;
+                }
+                servePhotoPage(exchange, query, -1);
+            } else if (segments.length == 2 && (segments[0].equals("collections") || segments[0].equals("topics"))) {
+                ObjectNode listing = objectMapper.createObjectNode();
+                listing.put("id", segments[1]);
+                listing.put("title", "Mock " + segments[0] + " " + segments[1]);
+                listing.put("total_photos", (long) config.getPhotosPerUser() * config.getUsers());
+                sendJson(exchange, 200, listing);
+            } else if (segments.length == 3 && (segments[0].equals("collections") || segments[0].equals("topics"))
+                    && segments[2].equals("photos")) {
+                servePhotoPage(exchange, query, -1);
+            } else if (segments.length == 2 && segments[0].equals("search") && segments[1].equals("photos")) {
+                serveSearchPage(exchange, query);
+            } else if (segments.length == 1 && segments[0].equals("photos")) {
+                servePhotoPage(exchange, query, -1);
+            } else if (segments.length == 2 && segments[0].equals("photos")) {
+                int[] ref = catalog.resolve(segments[1]);
+                if (ref == null) {
+                    sendError(exchange, 404, "Couldn't find Photo");
+                    return;
+                }
+                sendJson(exchange, 200, catalog.photo(ref[0], ref[1], true));
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        } catch (Exception e) {
+            logger.error("Mock request {} failed: {}", exchange.getRequestURI(), e.getMessage(), e);
+            sendError(exchange, 500, "Mock server error: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Newest first like the real API; userIndex -1 lists everyone's photos
+     */
+    private void servePhotoPage(HttpExchange exchange, Map<String, String> query, int userIndex) throws IOException {
+        sendJson(exchange, 200, photoPage(exchange, query, userIndex));
+    }
+
+    /**
+     * Every query matches all photos; results are wrapped the way /search/photos does it
+     */
+    private void serveSearchPage(HttpExchange exchange, Map<String, String> query) throws IOException {
+        long total = (long) config.getPhotosPerUser() * config.getUsers();
+        int perPage = Math.max(1, Math.min(MAX_PER_PAGE, intParam(query, "per_page", DEFAULT_PER_PAGE)));
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("total", total);
+        result.put("total_pages", (total + perPage - 1) / perPage);
+        result.set("results", photoPage(exchange, query, -1));
+        sendJson(exchange, 200, result);
+    }
+
+    private ArrayNode photoPage(HttpExchange exchange, Map<String, String> query, int userIndex) {
+        int page = Math.max(1, intParam(query, "page", 1));
+        int perPage = Math.max(1, Math.min(MAX_PER_PAGE, intParam(query, "per_page", DEFAULT_PER_PAGE)));
+        long total = userIndex >= 0 ? config.getPhotosPerUser() : (long) config.getPhotosPerUser() * config.getUsers();
+
+        ArrayNode photos = objectMapper.createArrayNode();
+        long first = (long) (page - 1) * perPage;
+        for (long position = first; position < Math.min(total, first + perPage); position++) {
+            int user = userIndex >= 0 ? userIndex : (int) (position % config.getUsers());
+            long indexFromNewest = userIndex >= 0 ? position : position / config.getUsers();
+            int photoIndex = (int) (config.getPhotosPerUser() - 1 - indexFromNewest);
+            photos.add(catalog.photo(user, photoIndex, false));
+        }
+
+        exchange.getResponseHeaders().set("X-Total", String.valueOf(total));
+        exchange.getResponseHeaders().set("X-Per-Page", String.valueOf(perPage));
+        if (first + perPage < total) {
+            exchange.getResponseHeaders().set("Link", String.format("<%s%s?page=%d&per_page=%d>; rel=\"next\"",
+                getBaseUrl(), exchange.getRequestURI().getPath(), page + 1, perPage));
+        }
+        return photos;
+    }
+
+    private void serveImage(HttpExchange exchange, String fileName, Map<String, String> query) throws IOException {
+        String photoId = fileName.endsWith(".jpg") ? fileName.substring(0, fileName.length() - 4) : fileName;
+        String format = query.getOrDefault("fm", "jpg");
+        byte[] body = catalog.image(photoId, intParam(query, "w", null), intParam(query, "q", null), format);
+
+        exchange.getResponseHeaders().set("Content-Type", "png".equalsIgnoreCase(format) ? "image/png" : "image/jpeg");
+        exchange.getResponseHeaders().set("Cache-Control", "public, max-age=31536000");
+        imageBytes.add(body.length);
+        send(exchange, 200, body);
+    }
+
+    /**
+     * Checks the Client-ID and the per-key hourly budget; sends the error itself and returns
+     * false when the request must not proceed
+     */
+    private boolean authorize(HttpExchange exchange) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Client-ID ") || authorization.length() <= "Client-ID ".length()) {
+            sendError(exchange, 401, "OAuth error: The access token is invalid");
+            return false;
+        }
+        String key = authorization.substring("Client-ID ".length()).trim();
+        RateWindow window = rateWindows.computeIfAbsent(key, k -> new RateWindow());
+        int used = window.use();
+        setRateLimitHeaders(exchange, window);
+
+        if (used > config.getRateLimitPerHour()) {
+            sendText(exchange, 403, "Rate Limit Exceeded");
+            return false;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < config.getForbiddenRate()) {
+            sendText(exchange, 403, "Rate Limit Exceeded");
+            return false;
+        }
+        if (injectServerError(exchange)) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean injectServerError(HttpExchange exchange) throws IOException {
+        if (ThreadLocalRandom.current().nextDouble() < config.getServerErrorRate()) {
+            int status = ThreadLocalRandom.current().nextBoolean() ? 500 : 503;
+            sendError(exchange, status, "Injected failure");
+            return true;
+        }
+        return false;
+    }
+
+    private void simulateLatency() {
+        long delay = config.getLatencyMs();
+        if (config.getLatencyJitterMs() > 0) {
+            delay += ThreadLocalRandom.current().nextLong(config.getLatencyJitterMs() + 1);
+        }
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void setRateLimitHeaders(HttpExchange exchange, RateWindow window) {
+        exchange.getResponseHeaders().set("X-Ratelimit-Limit", String.valueOf(config.getRateLimitPerHour()));
+        exchange.getResponseHeaders().set("X-Ratelimit-Remaining",
+            String.valueOf(Math.max(0, config.getRateLimitPerHour() - window.used())));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        send(exchange, status, objectMapper.writeValueAsBytes(body));
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("errors", new String[]{message});
+        sendJson(exchange, status, body);
+    }
+
+    private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        send(exchange, status, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        responsesByStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static Integer intParam(Map<String, String> query, String name, Integer defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Requests made with one key in the current clock hour
+     */
+    private static class RateWindow {
+        private volatile long hour = currentHour();
+        private final AtomicInteger count = new AtomicInteger();
+
+        int use() {
+            long now = currentHour();
+            if (now != hour) {
+                synchronized (this) {
+                    if (now != hour) {
+                        count.set(0);
+                        hour = now;
+                    }
+                }
+            }
+            return count.incrementAndGet();
+        }
+
+        int used() {
+            return count.get();
+        }
+
+        private static long currentHour() {
+            return System.currentTimeMillis() / TimeUnit.HOURS.toMillis(1);
+        }
+    }
+}
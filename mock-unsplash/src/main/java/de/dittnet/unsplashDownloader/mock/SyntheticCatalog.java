@@ -0,0 +1,278 @@
+package de.dittnet.unsplashDownloader.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic users, photos and JPEGs. Nothing is stored: a photo ID encodes its user and
+ * position, so any ID handed out by a listing can be resolved again by /photos/{id}.
+ */
+class SyntheticCatalog {
+    private static final String ID_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    private static final String[] TAGS = {
+        "nature", "sea", "mountain", "city", "night", "forest", "portrait", "architecture",
+        "travel", "sky", "sunset", "animal", "winter", "beach", "street", "food"
+    };
+    // Odd multiplier used to scatter IDs; its inverse modulo 2^64 undoes the scatter
+    private static final long SCATTER = 0x9E3779B97F4A7C15L;
+    private static final long UNSCATTER = inverse(SCATTER);
+
+    private final MockUnsplashConfig config;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Map<String, byte[]> imageCache;
+
+    SyntheticCatalog(MockUnsplashConfig config, ObjectMapper objectMapper, String baseUrl) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.imageCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > config.getImageCacheSize();
+            }
+        };
+    }
+
+    String username(int userIndex) {
+        return String.format("mockuser%02d", userIndex + 1);
+    }
+
+    /**
+     * Index of a synthetic user, or -1 if the name is not one of ours
+     */
+    int userIndex(String username) {
+        if (username == null || !username.startsWith("mockuser")) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(username.substring("mockuser".length())) - 1;
+            return index >= 0 && index < config.getUsers() ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 11 characters like a real ID: 20 bits of user, 28 bits of position and a 16-bit check,
+     * scattered so prefixes spread evenly
+     */
+    String photoId(int userIndex, int photoIndex) {
+        long value = ((long) check(userIndex, photoIndex) << 48) | ((long) userIndex << 28) | photoIndex;
+        value = (value ^ config.getSeed()) * SCATTER;
+        StringBuilder id = new StringBuilder(11);
+        for (int i = 0; i < 11; i++) {
+            id.append(ID_ALPHABET.charAt((int) (value & 63)));
+            value >>>= 6;
+        }
+        return id.toString();
+    }
+
+    /**
+     * [userIndex, photoIndex] for an ID produced by photoId, or null
+     */
+    int[] resolve(String photoId) {
+        if (photoId == null || photoId.length() != 11) {
+            return null;
+        }
+        long value = 0;
+        for (int i = 10; i >= 0; i--) {
+            int digit = ID_ALPHABET.indexOf(photoId.charAt(i));
+            if (digit < 0) {
+                return null;
+            }
+            value = (value << 6) | digit;
+        }
+        value = (value * UNSCATTER) ^ config.getSeed();
+        int userIndex = (int) ((value >>> 28) & 0xfffff);
+        int photoIndex = (int) (value & 0xfffffff);
+        if ((int) (value >>> 48) != check(userIndex, photoIndex)
+                || userIndex >= config.getUsers() || photoIndex >= config.getPhotosPerUser()) {
+            return null;
+        }
+        return new int[]{userIndex, photoIndex};
+    }
+
+    private int check(int userIndex, int photoIndex) {
+        return (int) ((random(userIndex, photoIndex).nextLong() >>> 48) & 0xffff);
+    }
+
+    ObjectNode user(int userIndex) {
+        Random random = random(userIndex, -1);
+        String username = username(userIndex);
+        ObjectNode user = objectMapper.createObjectNode();
+        user.put("id", "u" + photoId(userIndex, 0).substring(1));
+        user.put("username", username);
+        user.put("name", "Mock Photographer " + (userIndex + 1));
+        user.put("bio", "Synthetic photographer served by the mock Unsplash server.");
+        user.put("location", "Nowhere " + random.nextInt(100));
+        user.put("total_photos", config.getPhotosPerUser());
+        user.put("total_likes", random.nextInt(1000));
+        user.put("total_collections", random.nextInt(20));
+        user.putObject("profile_image")
+            .put("small", baseUrl + "/images/profile-" + username + ".jpg?w=32")
+            .put("medium", baseUrl + "/images/profile-" + username + ".jpg?w=64")
+            .put("large", baseUrl + "/images/profile-" + username + ".jpg?w=128");
+        user.putObject("links")
+            .put("self", baseUrl + "/users/" + username)
+            .put("photos", baseUrl + "/users/" + username + "/photos");
+        return user;
+    }
+
+    /**
+     * The photo as it appears in list responses; withDetails adds what only /photos/{id} returns
+     */
+    ObjectNode photo(int userIndex, int photoIndex, boolean withDetails) {
+        Random random = random(userIndex, photoIndex);
+        String id = photoId(userIndex, photoIndex);
+        int width = 3000 + random.nextInt(3000);
+        int height = 2000 + random.nextInt(2000);
+        String imageUrl = baseUrl + "/images/" + id + ".jpg?ixid=mock";
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0)
+            .minusHours((long) (config.getPhotosPerUser() - photoIndex) * 7);
+
+        ObjectNode photo = objectMapper.createObjectNode();
+        photo.put("id", id);
+        photo.put("slug", "mock-photo-" + id);
+        photo.put("created_at", createdAt.atOffset(ZoneOffset.UTC).toString());
+        photo.put("updated_at", createdAt.plusDays(3).atOffset(ZoneOffset.UTC).toString());
+        photo.put("width", width);
+        photo.put("height", height);
+        photo.put("color", String.format("#%06x", random.nextInt(0x1000000)));
+        photo.put("blur_hash", "LKO2?U%2Tw=w]~RBVZRi};RPxuwH");
+        photo.put("description", "Synthetic photo " + (photoIndex + 1) + " by " + username(userIndex));
+        photo.put("alt_description", "a mock " + TAGS[random.nextInt(TAGS.length)] + " scene");
+        photo.put("likes", random.nextInt(5000));
+        photo.putObject("urls")
+            .put("raw", imageUrl)
+            .put("full", imageUrl + "&q=85&fm=jpg")
+            .put("regular", imageUrl + "&q=80&fm=jpg&w=1080")
+            .put("small", imageUrl + "&q=80&fm=jpg&w=400")
+            .put("thumb", imageUrl + "&q=80&fm=jpg&w=200");
+        photo.putObject("links")
+            .put("self", baseUrl + "/photos/" + id)
+            .put("html", baseUrl + "/photos/" + id)
+            .put("download", imageUrl)
+            .put("download_location", baseUrl + "/photos/" + id + "/download");
+        photo.set("user", user(userIndex));
+
+        if (withDetails) {
+            photo.put("title", "Mock photo " + id);
+            photo.put("views", random.nextInt(1_000_000));
+            photo.put("downloads", random.nextInt(50_000));
+            photo.putObject("exif")
+                .put("make", "Mockon")
+                .put("model", "M" + (1 + random.nextInt(9)))
+                .put("exposure_time", "1/" + (60 + random.nextInt(900)))
+                .put("aperture", String.valueOf(1.8 + random.nextInt(10) / 2.0))
+                .put("focal_length", String.valueOf(24 + random.nextInt(100)))
+                .put("iso", 100 * (1 + random.nextInt(32)));
+            photo.putObject("location")
+                .put("city", "Mock City " + random.nextInt(50))
+                .put("country", "Mockland");
+            ArrayNode tags = photo.putArray("tags");
+            int tagCount = 3 + random.nextInt(5);
+            for (int i = 0; i < tagCount; i++) {
+                tags.addObject()
+                    .put("type", "search")
+                    .put("title", TAGS[random.nextInt(TAGS.length)]);
+            }
+        }
+        return photo;
+    }
+
+    /**
+     * A JPEG (or PNG for fm=png) that differs per photo, scaled to the requested width
+     */
+    byte[] image(String photoId, Integer requestedWidth, Integer quality, String format) throws IOException {
+        String key = photoId + "|" + requestedWidth + "|" + quality + "|" + format;
+        synchronized (imageCache) {
+            byte[] cached = imageCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        int width = config.getImageWidth();
+        int height = config.getImageHeight();
+        if (requestedWidth != null && requestedWidth > 0 && requestedWidth < width) {
+            height = Math.max(1, height * requestedWidth / width);
+            width = requestedWidth;
+        }
+        byte[] bytes = encode(render(photoId, width, height), quality, format);
+
+        synchronized (imageCache) {
+            imageCache.put(key, bytes);
+        }
+        return bytes;
+    }
+
+    private BufferedImage render(String photoId, int width, int height) {
+        Random random = new Random(photoId.hashCode() ^ config.getSeed());
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0x1000000)),
+                width, height, new Color(random.nextInt(0x1000000))));
+            g.fillRect(0, 0, width, height);
+            for (int i = 0; i < 12; i++) {
+                g.setColor(new Color(random.nextInt(0x1000000)));
+                int w = width / 8 + random.nextInt(Math.max(1, width / 3));
+                int h = height / 8 + random.nextInt(Math.max(1, height / 3));
+                g.fillOval(random.nextInt(width), random.nextInt(height), w, h);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private byte[] encode(BufferedImage image, Integer quality, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("png".equalsIgnoreCase(format)) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality != null ? Math.max(1, Math.min(100, quality)) / 100f : 0.85f);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private Random random(int userIndex, int photoIndex) {
+        return new Random(config.getSeed() * 31 + userIndex * 1_000_003L + photoIndex);
+    }
+
+    private static long inverse(long odd) {
+        // Newton iteration: each step doubles the number of correct low bits
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse;
+    }
+}
@@ -17,6 +17,8 @@ public class ApiKeyManager {
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyManager.class);
     private static final int DEFAULT_HOURLY_LIMIT_DEMO = 50;
     private static final int DEFAULT_HOURLY_LIMIT_PRODUCTION = 5000;
+    private static final String KEY_STATE_PREFIX = "api_key:";
+    private static final String KEY_INDEX_KEY = "api_key_index";
     
     private final List<String> apiKeys;
     private final Map<String, Integer> hourlyUsage;
@@ -25,8 +27,10 @@ public class ApiKeyManager {
     private final Map<String, LocalDateTime> rateLimitResetTime;
     private final AtomicInteger currentKeyIndex;
     private final ObjectMapper objectMapper;
+    private final StateStore stateStore;
     private final File stateFile;
     private final int hourlyLimit;
+    private int savedKeyIndex = -1;
     
     private final String stateDir;
     
@@ -38,6 +42,7 @@ public class ApiKeyManager {
         this.rateLimitResetTime = new HashMap<>();
         this.currentKeyIndex = new AtomicInteger(0);
         this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.stateStore = StateStore.open(new File(outputDir));
         this.stateFile = new File(outputDir, "api_key_state.json");
         this.hourlyLimit = DEFAULT_HOURLY_LIMIT_DEMO; // Default to demo limits
         
@@ -224,7 +229,7 @@ public class ApiKeyManager {
                 usage, hourlyLimit, key.substring(0, Math.min(8, key.length())));
             
             try {
-                saveState();
+                saveKeyState(key);
             } catch (IOException e) {
                 logger.error("Failed to save API key state", e);
             }
@@ -244,7 +249,7 @@ public class ApiKeyManager {
                 rateLimitResetTime.get(key));
             
             try {
-                saveState();
+                saveKeyState(key);
             } catch (IOException e) {
                 logger.error("Failed to save API key state", e);
             }
@@ -295,6 +300,32 @@ public class ApiKeyManager {
         return available;
     }
     
+    /**
+     * Requests left in the current hour per key (masked); 0 while a key is rate limited
+     */
+    public synchronized Map<String, Integer> getRemainingBudget() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        
+        for (String key : apiKeys) {
+            boolean rateLimited = keyRateLimited.get(key);
+            LocalDateTime resetTime = rateLimitResetTime.get(key);
+            LocalDateTime lastUsed = lastUsageHour.get(key);
+            int usage = hourlyUsage.get(key);
+            
+            if (rateLimited && resetTime != null && now.isAfter(resetTime)) {
+                rateLimited = false;
+            }
+            if (lastUsed != null && (now.getHour() != lastUsed.getHour() || now.getDayOfYear() != lastUsed.getDayOfYear())) {
+                usage = 0;
+            }
+            
+            remaining.put(maskKey(key), rateLimited ? 0 : Math.max(0, hourlyLimit - usage));
+        }
+        
+        return remaining;
+    }
+    
     public synchronized LocalDateTime getNextResetTime() {
         LocalDateTime now = LocalDateTime.now();
         List<LocalDateTime> resetTimes = new ArrayList<>();
@@ -356,7 +387,7 @@ public class ApiKeyManager {
         keyRateLimited.put(key, false); // Not rate limited, just at hourly limit
         logger.info("Simulated hourly limit reached for key: {}", maskKey(key));
         try {
-            saveState();
+            saveKeyState(key);
         } catch (IOException e) {
             logger.error("Failed to save state after simulating hourly limit", e);
         }
@@ -370,6 +401,39 @@ public class ApiKeyManager {
     }
     
     private void loadState() {
+        Map<String, byte[]> stored = stateStore.getAll(KEY_STATE_PREFIX);
+        if (stored.isEmpty()) {
+            loadLegacyState();
+            return;
+        }
+        
+        try {
+            for (Map.Entry<String, byte[]> entry : stored.entrySet()) {
+                String key = entry.getKey().substring(KEY_STATE_PREFIX.length());
+                KeyState keyState = objectMapper.readValue(entry.getValue(), KeyState.class);
+                hourlyUsage.put(key, keyState.getHourlyUsage());
+                if (keyState.getLastUsageHour() != null) {
+                    lastUsageHour.put(key, keyState.getLastUsageHour());
+                }
+                keyRateLimited.put(key, keyState.isRateLimited());
+                if (keyState.getRateLimitResetTime() != null) {
+                    rateLimitResetTime.put(key, keyState.getRateLimitResetTime());
+                }
+            }
+            String index = stateStore.getString(KEY_INDEX_KEY);
+            if (index != null) {
+                currentKeyIndex.set(Integer.parseInt(index));
+                savedKeyIndex = currentKeyIndex.get();
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.error("Failed to load API key state", e);
+        }
+    }
+    
+    /**
+     * Reads api_key_state.json written by earlier versions and moves it into the state store
+     */
+    private void loadLegacyState() {
         if (!stateFile.exists()) {
             return;
         }
@@ -391,20 +455,29 @@ public class ApiKeyManager {
                 }
                 currentKeyIndex.set(state.getCurrentKeyIndex());
             }
+            for (String key : hourlyUsage.keySet()) {
+                saveKeyState(key);
+            }
         } catch (IOException e) {
             logger.error("Failed to load API key state", e);
         }
     }
     
-    private void saveState() throws IOException {
-        ApiKeyState state = new ApiKeyState();
-        state.setHourlyUsage(new HashMap<>(hourlyUsage));
-        state.setLastUsageHour(new HashMap<>(lastUsageHour));
-        state.setKeyRateLimited(new HashMap<>(keyRateLimited));
-        state.setRateLimitResetTime(new HashMap<>(rateLimitResetTime));
-        state.setCurrentKeyIndex(currentKeyIndex.get());
-        
-        objectMapper.writeValue(stateFile, state);
+    /**
+     * Persists one key's usage as a single appended record instead of rewriting the state of all keys
+     */
+    private void saveKeyState(String key) throws IOException {
+        KeyState keyState = new KeyState();
+        keyState.setHourlyUsage(hourlyUsage.getOrDefault(key, 0));
+        keyState.setLastUsageHour(lastUsageHour.get(key));
+        keyState.setRateLimited(keyRateLimited.getOrDefault(key, false));
+        keyState.setRateLimitResetTime(rateLimitResetTime.get(key));
+        stateStore.put(KEY_STATE_PREFIX + key, objectMapper.writeValueAsBytes(keyState));
+        
+        if (currentKeyIndex.get() != savedKeyIndex) {
+            stateStore.putString(KEY_INDEX_KEY, String.valueOf(currentKeyIndex.get()));
+            savedKeyIndex = currentKeyIndex.get();
+        }
     }
     
     public void reloadConfiguration() {
@@ -469,4 +542,43 @@ public class ApiKeyManager {
             this.currentKeyIndex = currentKeyIndex;
         }
     }
+    
+    private static class KeyState {
+        private int hourlyUsage;
+        private LocalDateTime lastUsageHour;
+        private boolean rateLimited;
+        private LocalDateTime rateLimitResetTime;
+        
+        public int getHourlyUsage() {
+            return hourlyUsage;
+        }
+        
+        public void setHourlyUsage(int hourlyUsage) {
+            this.hourlyUsage = hourlyUsage;
+        }
+        
+        public LocalDateTime getLastUsageHour() {
+            return lastUsageHour;
+        }
+        
+        public void setLastUsageHour(LocalDateTime lastUsageHour) {
+            this.lastUsageHour = lastUsageHour;
+        }
+        
+        public boolean isRateLimited() {
+            return rateLimited;
+        }
+        
+        public void setRateLimited(boolean rateLimited) {
+            this.rateLimited = rateLimited;
+        }
+        
+        public LocalDateTime getRateLimitResetTime() {
+            return rateLimitResetTime;
+        }
+        
+        public void setRateLimitResetTime(LocalDateTime rateLimitResetTime) {
+            this.rateLimitResetTime = rateLimitResetTime;
+        }
+    }
 }
\ No newline at end of file
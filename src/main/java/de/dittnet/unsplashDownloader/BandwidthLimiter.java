@@ -0,0 +1,136 @@
+package de.dittnet.unsplashDownloader;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Global bandwidth limit shared by all image streams. The rate follows a day/night schedule, and
+ * interactive (gallery) traffic takes precedence. Each lane has its own token bucket: gallery
+ * bytes are charged to both, so downloads give way to them, but the gallery never pays off
+ * debt the downloads ran up. Bulk readers also hold back while an interactive reader waits.
+ */
+public class BandwidthLimiter {
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public enum Lane {
+        INTERACTIVE,
+        BULK
+    }
+
+    // Bytes per second, 0 means unlimited
+    private final long dayLimit;
+    private final long nightLimit;
+    private final LocalTime nightStart;
+    private final LocalTime nightEnd;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private double bulkTokens;
+    private double interactiveTokens;
+    private long lastRefill = System.nanoTime();
+    private int interactiveWaiting;
+
+    public BandwidthLimiter(long dayLimit, long nightLimit, LocalTime nightStart, LocalTime nightEnd) {
+        this.dayLimit = Math.max(0, dayLimit);
+        this.nightLimit = Math.max(0, nightLimit);
+        this.nightStart = nightStart;
+        this.nightEnd = nightEnd;
+    }
+
+    public static BandwidthLimiter unlimited() {
+        return new BandwidthLimiter(0, 0, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT);
+    }
+
+    public InputStream throttle(InputStream in, Lane lane) {
+        return new ThrottledInputStream(in, this, lane);
+    }
+
+    /**
+     * Bytes per second allowed right now, 0 when unlimited
+     */
+    public long getCurrentLimit() {
+        return limitAt(LocalTime.now());
+    }
+
+    long limitAt(LocalTime time) {
+        if (nightStart.equals(nightEnd)) {
+            return dayLimit;
+        }
+        boolean night = nightStart.isBefore(nightEnd)
+            ? !time.isBefore(nightStart) && time.isBefore(nightEnd)
+            : !time.isBefore(nightStart) || time.isBefore(nightEnd);
+        return night ? nightLimit : dayLimit;
+    }
+
+    /**
+     * Charges bytes that were just read and blocks until the bucket has paid them off
+     */
+    public void consume(Lane lane, long bytes) throws InterruptedIOException {
+        if (getCurrentLimit() <= 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (lane == Lane.INTERACTIVE) {
+                interactiveWaiting++;
+            }
+            try {
+                // Bulk traffic yields before it takes anything from the bucket
+                while (lane == Lane.BULK && interactiveWaiting > 0) {
+                    changed.awaitNanos(MAX_WAIT_NANOS);
+                }
+
+                long rate = getCurrentLimit();
+                refill(rate);
+                if (lane == Lane.INTERACTIVE) {
+                    interactiveTokens -= bytes;
+                    // Downloads make room for it, but are never more than a second behind
+                    bulkTokens = Math.max(bulkTokens - bytes, -rate);
+                } else {
+                    bulkTokens -= bytes;
+                }
+                while (rate > 0 && tokens(lane) < 0) {
+                    long debtNanos = (long) (-tokens(lane) * TimeUnit.SECONDS.toNanos(1) / rate);
+                    // Wake up periodically so a schedule change takes effect
+                    changed.awaitNanos(Math.min(Math.max(debtNanos, 1), MAX_WAIT_NANOS));
+                    rate = getCurrentLimit();
+                    refill(rate);
+                }
+                if (rate <= 0) {
+                    bulkTokens = 0;
+                    interactiveTokens = 0;
+                }
+            } finally {
+                if (lane == Lane.INTERACTIVE) {
+                    interactiveWaiting--;
+                    changed.signalAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for bandwidth");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double tokens(Lane lane) {
+        return lane == Lane.INTERACTIVE ? interactiveTokens : bulkTokens;
+    }
+
+    private void refill(long rate) {
+        long now = System.nanoTime();
+        if (rate > 0) {
+            // At most one second worth of burst
+            double added = (now - lastRefill) * (double) rate / TimeUnit.SECONDS.toNanos(1);
+            bulkTokens = Math.min(rate, bulkTokens + added);
+            interactiveTokens = Math.min(rate, interactiveTokens + added);
+        }
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,176 @@
+package de.dittnet.unsplashDownloader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Content-addressed photo store. Every image is kept once under blobs/ab/cd/&lt;sha256&gt;.jpg
+ * and the per-user photos directories only hold hard links to those blobs, so the same
+ * bytes downloaded into several output paths don't take up space more than once. Hard links
+ * can't cross file systems, so there is one store per volume (see {@link #forVolume}).
+ */
+public class BlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+    private static final String BLOB_EXTENSION = ".jpg";
+    private static final String TEMP_DIRECTORY = "tmp";
+
+    private final Path root;
+
+    public BlobStore(Path root) throws IOException {
+        this.root = root;
+        Files.createDirectories(root.resolve(TEMP_DIRECTORY));
+    }
+
+    /**
+     * Store for photos written below the given directory: the preferred (global) root if it is
+     * on the same volume, otherwise the store already registered for that volume, otherwise a
+     * new one at the fallback root. Registered roots are listed one per line in the registry.
+     */
+    public static synchronized BlobStore forVolume(Path directory, Path preferredRoot, Path fallbackRoot,
+                                                   Path registry) throws IOException {
+        Files.createDirectories(directory);
+        FileStore volume = Files.getFileStore(directory);
+
+        Files.createDirectories(preferredRoot);
+        if (Files.getFileStore(preferredRoot).equals(volume)) {
+            return new BlobStore(preferredRoot);
+        }
+        for (Path root : registeredRoots(registry)) {
+            if (Files.isDirectory(root) && Files.getFileStore(root).equals(volume)) {
+                return new BlobStore(root);
+            }
+        }
+
+        BlobStore store = new BlobStore(fallbackRoot);
+        Files.createDirectories(registry.getParent());
+        Files.writeString(registry, fallbackRoot.toAbsolutePath() + System.lineSeparator(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        logger.info("New blob store for volume {}: {}", volume.name(), fallbackRoot.toAbsolutePath());
+        return store;
+    }
+
+    private static List<Path> registeredRoots(Path registry) throws IOException {
+        List<Path> roots = new ArrayList<>();
+        if (Files.exists(registry)) {
+            for (String line : Files.readAllLines(registry)) {
+                if (!line.isBlank()) {
+                    roots.add(Paths.get(line.trim()));
+                }
+            }
+        }
+        return roots;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Scratch file on the same file system as the blobs, so storing it is a rename. The name
+     * is unique because several downloads can share one store.
+     */
+    public Path newTempFile(String fileName) throws IOException {
+        int dot = fileName.lastIndexOf('.');
+        String prefix = (dot > 0 ? fileName.substring(0, dot) : fileName) + "-";
+        String suffix = dot > 0 ? fileName.substring(dot) : BLOB_EXTENSION;
+        return Files.createTempFile(root.resolve(TEMP_DIRECTORY), prefix, suffix);
+    }
+
+    public Path resolve(String contentHash) {
+        return root.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash + BLOB_EXTENSION);
+    }
+
+    public boolean contains(String contentHash) {
+        return contentHash != null && Files.exists(resolve(contentHash));
+    }
+
+    /**
+     * Move a finished file into the store and return its SHA-256. If the same content is
+     * already stored the file is simply dropped.
+     */
+    public String put(Path file) throws IOException {
+        String contentHash = sha256(file);
+        Path blob = resolve(contentHash);
+
+        if (Files.exists(blob)) {
+            Files.delete(file);
+            logger.debug("Blob {} already stored, dropped duplicate content", contentHash);
+            return contentHash;
+        }
+
+        Files.createDirectories(blob.getParent());
+        try {
+            Files.move(file, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(file, blob, StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileAlreadyExistsException e) {
+            // Another download stored the same content in the meantime
+            Files.deleteIfExists(file);
+        }
+        return contentHash;
+    }
+
+    /**
+     * Make a stored blob visible at the given path (a per-user photos directory)
+     */
+    public void link(String contentHash, Path view) throws IOException {
+        Path blob = resolve(contentHash);
+        if (!Files.exists(blob)) {
+            throw new IOException("Blob not found: " + contentHash);
+        }
+        Files.createDirectories(view.getParent());
+        Files.deleteIfExists(view);
+        linkOrCopy(blob, view);
+    }
+
+    /**
+     * Hard link when source and target share a file system, otherwise fall back to a copy
+     */
+    public static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            logger.debug("Hard link not possible for {} ({}), copying instead", target, e.getMessage());
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
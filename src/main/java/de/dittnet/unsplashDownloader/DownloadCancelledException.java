@@ -0,0 +1,14 @@
+package de.dittnet.unsplashDownloader;
+
+import java.io.IOException;
+
+/**
+ * Thrown out of a download once its DownloadControl has been cancelled
+ */
+public class DownloadCancelledException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public DownloadCancelledException() {
+        super("Download cancelled");
+    }
+}
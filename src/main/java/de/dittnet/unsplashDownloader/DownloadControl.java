@@ -0,0 +1,111 @@
+package de.dittnet.unsplashDownloader;
+
+import okhttp3.Call;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pause/resume/cancel token for one download job. The downloader calls checkpoint() between
+ * stages; cancel() additionally aborts the HTTP call in flight, so a transfer stops mid-stream
+ * instead of running to the end.
+ */
+public class DownloadControl {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // The downloader makes one call at a time, so the latest call is the one in flight
+    private final AtomicReference<Call> currentCall = new AtomicReference<>();
+    private volatile boolean paused;
+    private volatile boolean cancelled;
+
+    public void pause() {
+        signal(() -> paused = true);
+    }
+
+    public void resume() {
+        signal(() -> paused = false);
+    }
+
+    public void cancel() {
+        signal(() -> cancelled = true);
+        Call call = currentCall.get();
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Blocks while the job is paused and throws once it has been cancelled
+     */
+    public void checkpoint() throws DownloadCancelledException {
+        lock.lock();
+        try {
+            while (paused && !cancelled) {
+                changed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        } finally {
+            lock.unlock();
+        }
+        throwIfCancelled();
+    }
+
+    public void throwIfCancelled() throws DownloadCancelledException {
+        if (cancelled) {
+            throw new DownloadCancelledException();
+        }
+    }
+
+    /**
+     * Waits like Thread.sleep but returns early with an exception when the job is cancelled
+     */
+    public void sleep(long millis) throws DownloadCancelledException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(millis);
+        lock.lock();
+        try {
+            while (remaining > 0 && !cancelled) {
+                remaining = changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        } finally {
+            lock.unlock();
+        }
+        throwIfCancelled();
+    }
+
+    /**
+     * Makes the call the one cancel() aborts. A call registered after cancellation is
+     * cancelled straight away.
+     */
+    public Call track(Call call) {
+        currentCall.set(call);
+        if (cancelled) {
+            call.cancel();
+        }
+        return call;
+    }
+
+    private void signal(Runnable change) {
+        lock.lock();
+        try {
+            change.run();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package de.dittnet.unsplashDownloader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.dittnet.unsplashDownloader.model.Photo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only NDJSON log of downloaded photo metadata, one JSON object per line. Records go
+ * through a single buffered stream and are flushed in batches. Segments rotate at a size limit
+ * and photos.idx maps every photo ID to its segment and byte offset, so the catalog can be
+ * rebuilt without the database. There is one instance per directory (see {@link #open}),
+ * shared by all downloads writing to it.
+ */
+public class MetadataSidecar {
+    private static final Logger logger = LoggerFactory.getLogger(MetadataSidecar.class);
+    private static final String SEGMENT_PREFIX = "photos-";
+    private static final String SEGMENT_SUFFIX = ".ndjson";
+    private static final String INDEX_FILE = "photos.idx";
+    private static final int FLUSH_BATCH_SIZE = 25;
+    private static final long MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final Map<Path, MetadataSidecar> OPEN = new HashMap<>();
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> pendingIndexEntries = new ArrayList<>();
+
+    private FileOutputStream segmentFile;
+    private BufferedOutputStream segmentOut;
+    private Writer indexWriter;
+    private int segmentNumber;
+    private long segmentOffset;
+
+    public static MetadataSidecar open(Path directory) {
+        Path path = directory.toAbsolutePath().normalize();
+        synchronized (OPEN) {
+            return OPEN.computeIfAbsent(path, MetadataSidecar::new);
+        }
+    }
+
+    private MetadataSidecar(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Append one record. It becomes durable at the next batch flush.
+     */
+    public synchronized void append(Photo photo, String fileName, String contentHash) throws IOException {
+        ensureOpen();
+
+        byte[] line = objectMapper.writeValueAsBytes(toRecord(photo, fileName, contentHash));
+        if (segmentOffset > 0 && segmentOffset + line.length + 1 > MAX_SEGMENT_BYTES) {
+            rotate();
+        }
+
+        segmentOut.write(line);
+        segmentOut.write('\n');
+        pendingIndexEntries.add(photo.getId() + "\t" + segmentNumber + "\t" + segmentOffset);
+        segmentOffset += line.length + 1;
+
+        if (pendingIndexEntries.size() >= FLUSH_BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Force buffered records to disk. Index entries are written only after their data is
+     * synced, so the index never points past the end of a segment.
+     */
+    public synchronized void flush() throws IOException {
+        if (segmentOut == null || pendingIndexEntries.isEmpty()) {
+            return;
+        }
+        segmentOut.flush();
+        segmentFile.getChannel().force(false);
+
+        for (String entry : pendingIndexEntries) {
+            indexWriter.write(entry);
+            indexWriter.write('\n');
+        }
+        indexWriter.flush();
+        pendingIndexEntries.clear();
+    }
+
+    /**
+     * Photo ID to {segment, offset}; later entries win when a photo was downloaded again
+     */
+    private Map<String, long[]> loadIndex() throws IOException {
+        Map<String, long[]> index = new HashMap<>();
+        Path indexPath = directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexPath)) {
+            return index;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length == 3) {
+                    index.put(parts[0], new long[] {Integer.parseInt(parts[1]), Long.parseLong(parts[2])});
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Stream the latest record of every photo in write order, skipping a torn last line.
+     * Records the index doesn't know yet (written just before a crash) are included.
+     */
+    public void readLatest(Consumer<JsonNode> consumer) throws IOException {
+        flush();
+        Map<String, long[]> index = loadIndex();
+
+        for (Path segment : listSegments()) {
+            int number = segmentNumber(segment);
+            long offset = 0;
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    long lineOffset = offset;
+                    offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JsonNode record;
+                    try {
+                        record = objectMapper.readTree(line);
+                    } catch (IOException e) {
+                        logger.warn("Skipping unreadable record in {}: {}", segment.getFileName(), e.getMessage());
+                        continue;
+                    }
+                    long[] latest = index.get(record.path("id").asText());
+                    if (latest == null || (latest[0] == number && latest[1] == lineOffset)) {
+                        consumer.accept(record);
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (segmentOut != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        segmentNumber = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1));
+        Path segment = segmentPath(segmentNumber);
+        repairTornTail(segment);
+
+        openSegment(segment);
+        indexWriter = Files.newBufferedWriter(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void rotate() throws IOException {
+        flush();
+        segmentOut.close();
+        segmentNumber++;
+        openSegment(segmentPath(segmentNumber));
+        logger.info("Rotated metadata sidecar to {}", segmentPath(segmentNumber).getFileName());
+    }
+
+    private void openSegment(Path segment) throws IOException {
+        segmentFile = new FileOutputStream(segment.toFile(), true);
+        segmentOut = new BufferedOutputStream(segmentFile, 64 * 1024);
+        segmentOffset = Files.size(segment);
+    }
+
+    /**
+     * Cut a partially written last line left behind by a crash
+     */
+    private void repairTornTail(Path segment) throws IOException {
+        if (!Files.exists(segment) || Files.size(segment) == 0) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(segment.toFile(), "rw")) {
+            long end = raf.length();
+            long pos = end - 1;
+            while (pos >= 0) {
+                raf.seek(pos);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                pos--;
+            }
+            if (pos + 1 < end) {
+                logger.warn("Truncating {} torn bytes at end of {}", end - pos - 1, segment.getFileName());
+                raf.setLength(pos + 1);
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private ObjectNode toRecord(Photo photo, String fileName, String contentHash) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("id", photo.getId());
+        record.put("title", photo.getTitle());
+        record.put("description", photo.getDescription());
+        if (photo.getUser() != null) {
+            record.put("photographerName", photo.getUser().getName());
+            record.put("photographerUsername", photo.getUser().getUsername());
+        }
+        if (photo.getUrls() != null) {
+            record.put("url", photo.getUrls().getFull());
+        }
+        record.put("width", photo.getWidth());
+        record.put("height", photo.getHeight());
+        record.put("color", photo.getColor());
+        record.put("likes", photo.getLikes());
+        if (photo.getTags() != null) {
+            ArrayNode tags = record.putArray("tags");
+            for (Photo.Tag tag : photo.getTags()) {
+                tags.addObject().put("title", tag.getTitle()).put("type", tag.getType());
+            }
+        }
+        record.put("fileName", fileName);
+        record.put("contentHash", contentHash);
+        record.put("downloadedAt", LocalDateTime.now().toString());
+        return record;
+    }
+}
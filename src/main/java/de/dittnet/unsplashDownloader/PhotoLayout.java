@@ -0,0 +1,49 @@
+package de.dittnet.unsplashDownloader;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Directory layout of the photos folder. Large collections are spread over sub-directories
+ * so that listings and exists() checks stay fast, especially on network volumes.
+ */
+public enum PhotoLayout {
+    /** photos/username_id.jpg */
+    FLAT,
+    /** photos/ab/username_id.jpg, sharded by the first two characters of the photo ID */
+    ID_PREFIX,
+    /** photos/2024/03/username_id.jpg, sharded by download date */
+    YEAR_MONTH;
+
+    public Path resolve(Path photosDir, String fileName, String photoId, LocalDateTime downloadDate) {
+        switch (this) {
+            case ID_PREFIX:
+                if (photoId != null && photoId.length() >= 2) {
+                    // Lower-cased because IDs are case sensitive but macOS volumes usually aren't
+                    return photosDir.resolve(photoId.substring(0, 2).toLowerCase(Locale.ROOT)).resolve(fileName);
+                }
+                return photosDir.resolve(fileName);
+            case YEAR_MONTH:
+                if (downloadDate != null) {
+                    return photosDir.resolve(String.valueOf(downloadDate.getYear()))
+                            .resolve(String.format("%02d", downloadDate.getMonthValue()))
+                            .resolve(fileName);
+                }
+                return photosDir.resolve(fileName);
+            default:
+                return photosDir.resolve(fileName);
+        }
+    }
+
+    public static PhotoLayout fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return FLAT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown photo layout: " + value + " (expected flat, id-prefix or year-month)");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package de.dittnet.unsplashDownloader;
+
+import de.dittnet.unsplashDownloader.model.Photo;
+import okhttp3.HttpUrl;
+
+import java.util.Locale;
+
+/**
+ * Which rendition of a photo a download job fetches. Without a size, quality or format the
+ * API's "full" URL is used as before; otherwise the imgix parameters are applied to the "raw"
+ * URL so the CDN resizes and re-encodes before anything is transferred.
+ */
+public class RenditionPolicy {
+    public static final String DEFAULT_PRESET = "full";
+
+    // Longest edge in pixels, null keeps the original size
+    private final Integer maxDimension;
+    // 1-100, null leaves the CDN default
+    private final Integer quality;
+    // jpg or pjpg (progressive); photos are stored as .jpg with EXIF, so other formats don't fit
+    private final String format;
+    private final boolean prefetchThumbnail;
+
+    public RenditionPolicy(Integer maxDimension, Integer quality, String format, boolean prefetchThumbnail) {
+        if (maxDimension != null && maxDimension <= 0) {
+            throw new IllegalArgumentException("Max dimension must be positive: " + maxDimension);
+        }
+        if (quality != null && (quality < 1 || quality > 100)) {
+            throw new IllegalArgumentException("Quality must be between 1 and 100: " + quality);
+        }
+        String normalizedFormat = format == null || format.isBlank() ? null : format.trim().toLowerCase(Locale.ROOT);
+        if (normalizedFormat != null && !normalizedFormat.equals("jpg") && !normalizedFormat.equals("pjpg")) {
+            throw new IllegalArgumentException("Unsupported format: " + format + " (expected jpg or pjpg)");
+        }
+        this.maxDimension = maxDimension;
+        this.quality = quality;
+        this.format = normalizedFormat;
+        this.prefetchThumbnail = prefetchThumbnail;
+    }
+
+    public static RenditionPolicy full() {
+        return new RenditionPolicy(null, null, null, false);
+    }
+
+    /**
+     * full (original), large (2560px), regular (1080px) or preview (400px, thumbnail prefetched)
+     */
+    public static RenditionPolicy preset(String name) {
+        String preset = name == null || name.isBlank() ? DEFAULT_PRESET : name.trim().toLowerCase(Locale.ROOT);
+        switch (preset) {
+            case "full":
+                return full();
+            case "large":
+                return new RenditionPolicy(2560, 85, "jpg", false);
+            case "regular":
+                return new RenditionPolicy(1080, 80, "jpg", false);
+            case "preview":
+                return new RenditionPolicy(400, 75, "jpg", true);
+            default:
+                throw new IllegalArgumentException("Unknown rendition: " + name + " (expected full, large, regular or preview)");
+        }
+    }
+
+    /**
+     * Copy with the given values replacing this policy's where they are set
+     */
+    public RenditionPolicy override(Integer maxDimension, Integer quality, String format, Boolean prefetchThumbnail) {
+        return new RenditionPolicy(
+            maxDimension != null ? maxDimension : this.maxDimension,
+            quality != null ? quality : this.quality,
+            format != null && !format.isBlank() ? format : this.format,
+            prefetchThumbnail != null ? prefetchThumbnail : this.prefetchThumbnail);
+    }
+
+    public boolean isOriginal() {
+        return maxDimension == null && quality == null && format == null;
+    }
+
+    /**
+     * URL of the image to download for this photo
+     */
+    public String imageUrl(Photo.Urls urls) {
+        if (isOriginal() || urls.getRaw() == null) {
+            return urls.getFull();
+        }
+        return resized(urls.getRaw(), maxDimension, quality != null ? quality : 80, format != null ? format : "jpg");
+    }
+
+    /**
+     * URL of a small JPEG of at most the given size, for thumbnails and perceptual hashing
+     */
+    public static String thumbnailUrl(Photo.Urls urls, int size) {
+        if (urls.getRaw() == null) {
+            return urls.getThumb();
+        }
+        return resized(urls.getRaw(), size, 80, "jpg");
+    }
+
+    private static String resized(String rawUrl, Integer maxDimension, int quality, String format) {
+        HttpUrl raw = HttpUrl.parse(rawUrl);
+        if (raw == null) {
+            return rawUrl;
+        }
+        HttpUrl.Builder url = raw.newBuilder()
+            .setQueryParameter("q", String.valueOf(quality))
+            .setQueryParameter("fm", format);
+        if (maxDimension != null) {
+            // fit=max bounds the longest edge and never upscales
+            url.setQueryParameter("w", String.valueOf(maxDimension))
+                .setQueryParameter("h", String.valueOf(maxDimension))
+                .setQueryParameter("fit", "max");
+        }
+        return url.build().toString();
+    }
+
+    public Integer getMaxDimension() {
+        return maxDimension;
+    }
+
+    public Integer getQuality() {
+        return quality;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isPrefetchThumbnail() {
+        return prefetchThumbnail;
+    }
+
+    @Override
+    public String toString() {
+        if (isOriginal()) {
+            return "full" + (prefetchThumbnail ? " +thumbnail" : "");
+        }
+        return String.format("max %s px, q=%s, fm=%s%s", maxDimension != null ? maxDimension : "original",
+            quality != null ? quality : 80, format != null ? format : "jpg", prefetchThumbnail ? " +thumbnail" : "");
+    }
+}
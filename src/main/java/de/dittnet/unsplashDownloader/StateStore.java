@@ -0,0 +1,238 @@
+package de.dittnet.unsplashDownloader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Small key-value store for state that changes often (download progress, API key usage,
+ * user settings). Every put appends one checksummed record to state.kv, so an update costs
+ * the size of that one value instead of rewriting the whole state. On open the log is
+ * memory-mapped and replayed; the last record of a key wins and a torn or corrupt tail is cut
+ * off. Once the log is mostly superseded records it is compacted into a fresh file.
+ * <p>
+ * Stores are shared per directory, so every user of the same directory sees the same entries.
+ */
+public class StateStore {
+    private static final Logger logger = LoggerFactory.getLogger(StateStore.class);
+    public static final String FILE_NAME = "state.kv";
+
+    private static final int MAGIC = 0x55534B56; // "USKV"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    // crc, key length, value length
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final int DELETED = -1;
+    private static final long MIN_COMPACT_BYTES = 256 * 1024;
+
+    private static final Map<Path, StateStore> OPEN = new HashMap<>();
+
+    private final Path path;
+    private final Map<String, byte[]> entries = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long liveBytes;
+
+    public static StateStore open(File dir) throws IOException {
+        Path path = new File(dir, FILE_NAME).toPath().toAbsolutePath().normalize();
+        synchronized (OPEN) {
+            StateStore store = OPEN.get(path);
+            if (store == null) {
+                store = new StateStore(path);
+                OPEN.put(path, store);
+            }
+            return store;
+        }
+    }
+
+    private StateStore(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.getParent());
+        if (Files.exists(path)) {
+            replay();
+        } else {
+            writeFile(path, Map.of());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized String getString(String key) {
+        byte[] value = entries.get(key);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * All entries whose key starts with the given prefix, sorted by key
+     */
+    public synchronized Map<String, byte[]> getAll(String prefix) {
+        Map<String, byte[]> matches = new TreeMap<>();
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                matches.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return matches;
+    }
+
+    public synchronized void put(String key, byte[] value) throws IOException {
+        byte[] previous = entries.put(key, value);
+        if (previous != null) {
+            liveBytes -= recordSize(key, previous.length);
+        }
+        liveBytes += recordSize(key, value.length);
+        append(key, value);
+    }
+
+    public void putString(String key, String value) throws IOException {
+        put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public synchronized void remove(String key) throws IOException {
+        byte[] previous = entries.remove(key);
+        if (previous == null) {
+            return;
+        }
+        liveBytes -= recordSize(key, previous.length);
+        append(key, null);
+    }
+
+    private void append(String key, byte[] value) throws IOException {
+        writeFully(channel, encode(key, value));
+        long size = channel.size();
+        if (size > MIN_COMPACT_BYTES && size > liveBytes * 4) {
+            compact();
+        }
+    }
+
+    private void compact() throws IOException {
+        long before = channel.size();
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+        writeFile(temp, entries);
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        logger.debug("Compacted {} from {} to {} bytes", path, before, channel.size());
+    }
+
+    private void replay() throws IOException {
+        long validEnd;
+        long length;
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            length = readChannel.size();
+            if (length < HEADER_BYTES) {
+                validEnd = 0;
+            } else {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                    throw new IOException("State store " + path + " has an unknown format");
+                }
+                validEnd = readRecords(buffer);
+            }
+        }
+
+        if (validEnd == 0) {
+            logger.warn("State store {} has no valid header, starting empty", path);
+            writeFile(path, Map.of());
+        } else if (validEnd < length) {
+            logger.warn("Discarding {} bytes of torn or corrupt records at the end of {}", length - validEnd, path);
+            try (FileChannel writeChannel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                writeChannel.truncate(validEnd);
+            }
+        }
+    }
+
+    /**
+     * Applies records up to the first one that is incomplete or fails its checksum and returns
+     * where the valid part of the log ends
+     */
+    private long readRecords(MappedByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+            int start = buffer.position();
+            int checksum = buffer.getInt();
+            int keyLength = buffer.getInt();
+            int valueLength = buffer.getInt();
+            int payload = keyLength + Math.max(valueLength, 0);
+            if (keyLength <= 0 || valueLength < DELETED || payload < 0 || buffer.remaining() < payload) {
+                return start;
+            }
+
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(keyBytes);
+            byte[] value = valueLength == DELETED ? null : new byte[valueLength];
+            if (value != null) {
+                buffer.get(value);
+            }
+
+            crc.reset();
+            crc.update(buffer.duplicate().position(start + 4).limit(buffer.position()));
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            byte[] previous = value != null ? entries.put(key, value) : entries.remove(key);
+            if (previous != null) {
+                liveBytes -= recordSize(key, previous.length);
+            }
+            if (value != null) {
+                liveBytes += recordSize(key, value.length);
+            }
+        }
+        return buffer.position();
+    }
+
+    private static void writeFile(Path target, Map<String, byte[]> contents) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(out, header);
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                writeFully(out, encode(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static ByteBuffer encode(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value != null ? value.length : 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + keyBytes.length + valueLength);
+        record.putInt(0).putInt(keyBytes.length).putInt(value != null ? value.length : DELETED).put(keyBytes);
+        if (value != null) {
+            record.put(value);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, record.capacity() - 4);
+        record.putInt(0, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private static long recordSize(String key, int valueLength) {
+        return RECORD_HEADER_BYTES + key.length() + valueLength;
+    }
+}
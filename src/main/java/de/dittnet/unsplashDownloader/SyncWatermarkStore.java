@@ -0,0 +1,84 @@
+package de.dittnet.unsplashDownloader;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.dittnet.unsplashDownloader.model.SyncWatermark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-photographer sync watermarks of one output directory. Each watermark is its own record in
+ * the directory's state store, next to the download state, so recording one photographer's sync
+ * appends a single record instead of rewriting the watermarks of everyone else.
+ */
+public class SyncWatermarkStore {
+    private static final Logger logger = LoggerFactory.getLogger(SyncWatermarkStore.class);
+    public static final String LEGACY_FILE_NAME = "sync_watermarks.json";
+    private static final String KEY_PREFIX = "sync_watermark:";
+
+    private final StateStore stateStore;
+    private final File legacyFile;
+    private final ObjectMapper objectMapper;
+
+    public SyncWatermarkStore(File systemDir) throws IOException {
+        this.stateStore = StateStore.open(systemDir);
+        this.legacyFile = new File(systemDir, LEGACY_FILE_NAME);
+        this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        loadLegacyWatermarks();
+    }
+
+    public SyncWatermark get(String username) throws IOException {
+        byte[] value = stateStore.get(KEY_PREFIX + key(username));
+        return value != null ? objectMapper.readValue(value, SyncWatermark.class) : null;
+    }
+
+    public Map<String, SyncWatermark> getAll() throws IOException {
+        Map<String, SyncWatermark> watermarks = new TreeMap<>();
+        for (Map.Entry<String, byte[]> entry : stateStore.getAll(KEY_PREFIX).entrySet()) {
+            watermarks.put(entry.getKey().substring(KEY_PREFIX.length()),
+                objectMapper.readValue(entry.getValue(), SyncWatermark.class));
+        }
+        return watermarks;
+    }
+
+    public void put(SyncWatermark watermark) throws IOException {
+        stateStore.put(KEY_PREFIX + key(watermark.getUsername()), objectMapper.writeValueAsBytes(watermark));
+    }
+
+    /**
+     * Reads sync_watermarks.json written by earlier versions and moves it into the state store
+     */
+    private void loadLegacyWatermarks() {
+        if (!legacyFile.exists()) {
+            return;
+        }
+
+        // Holding the store's lock keeps a watermark recorded meanwhile from being overwritten
+        synchronized (stateStore) {
+            if (!stateStore.getAll(KEY_PREFIX).isEmpty()) {
+                return;
+            }
+            try {
+                Map<String, SyncWatermark> legacy = objectMapper.readValue(legacyFile,
+                    new TypeReference<TreeMap<String, SyncWatermark>>() {});
+                for (SyncWatermark watermark : legacy.values()) {
+                    put(watermark);
+                }
+                logger.info("Moved {} sync watermarks from {} into the state store", legacy.size(), legacyFile);
+            } catch (IOException e) {
+                logger.error("Failed to load legacy sync watermarks", e);
+            }
+        }
+    }
+
+    private static String key(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,49 @@
+package de.dittnet.unsplashDownloader;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that charges every byte read to a BandwidthLimiter lane
+ */
+public class ThrottledInputStream extends FilterInputStream {
+    // Largest read charged at once, keeps the bucket's debt and the wait per read small
+    private static final int MAX_CHUNK = 64 * 1024;
+
+    private final BandwidthLimiter limiter;
+    private final BandwidthLimiter.Lane lane;
+
+    public ThrottledInputStream(InputStream in, BandwidthLimiter limiter, BandwidthLimiter.Lane lane) {
+        super(in);
+        this.limiter = limiter;
+        this.lane = lane;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            limiter.consume(lane, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, Math.min(len, MAX_CHUNK));
+        if (n > 0) {
+            limiter.consume(lane, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            limiter.consume(lane, skipped);
+        }
+        return skipped;
+    }
+}
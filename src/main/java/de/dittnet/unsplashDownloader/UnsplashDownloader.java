@@ -1,12 +1,24 @@
 package de.dittnet.unsplashDownloader;
 
+import de.dittnet.unsplashDownloader.model.CatalogEntry;
 import de.dittnet.unsplashDownloader.model.Photo;
 import de.dittnet.unsplashDownloader.model.DownloadState;
+import de.dittnet.unsplashDownloader.model.PhotoIdSet;
+import de.dittnet.unsplashDownloader.model.PhotoTiming;
+import de.dittnet.unsplashDownloader.model.SyncWatermark;
 import de.dittnet.unsplashDownloader.service.PhotoService;
 import de.dittnet.unsplashDownloader.service.DownloadService;
-import com.fasterxml.jackson.core.type.TypeReference;
+import de.dittnet.unsplashDownloader.service.ThumbnailService;
+import de.dittnet.unsplashDownloader.source.PhotoJson;
+import de.dittnet.unsplashDownloader.source.PhotoSource;
+import de.dittnet.unsplashDownloader.source.PhotoSources;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -16,17 +28,31 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
-import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 public class UnsplashDownloader {
     private static final Logger logger = LoggerFactory.getLogger(UnsplashDownloader.class);
-    private static final String API_BASE_URL = "https://api.unsplash.com";
+    public static final String DEFAULT_API_BASE_URL = "https://api.unsplash.com";
     private static final int PER_PAGE = 30;
     private static final int MAX_DAILY_REQUESTS = 500; // Adjust based on your API plan
+    private static final long PAGE_DELAY_MS = 1000;
+    private static final int WATERMARK_SIZE = PER_PAGE;
+    private static final String DOWNLOAD_STATE_KEY = "download_state";
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 20;
+    public static final long DEFAULT_WRITE_MAX_DELAY_MS = 2000;
+    // Same as app.base-directory's default, for runs without the web application
+    private static final String DEFAULT_DATA_DIRECTORY = "./unsplash-data";
     
     private final ApiKeyManager apiKeyManager;
     private final OkHttpClient client;
@@ -34,17 +60,44 @@ public class UnsplashDownloader {
     private final String outputDir;
     private final String baseOutputDir;
     private final ImageMetadataHandler metadataHandler;
+    private final StateStore stateStore;
     private final File stateFile;
-    private final File descriptionsFile;
+    private final File stateIdsFile;
+    private final MetadataSidecar metadataSidecar;
+    private final BlobStore blobStore;
     private DownloadState state;
     private final PhotoService photoService;
     private DownloadService.DownloadProgressCallback progressCallback;
+    private boolean skipNearDuplicates = false;
+    private PhotoLayout photoLayout = PhotoLayout.FLAT;
+    private String apiBaseUrl = DEFAULT_API_BASE_URL;
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    private Executor imageExecutor;
+    private DownloadControl downloadControl = new DownloadControl();
+    private BandwidthLimiter bandwidthLimiter = BandwidthLimiter.unlimited();
+    private RenditionPolicy renditionPolicy = RenditionPolicy.full();
+    private File thumbnailDirectory;
+    private final SyncWatermarkStore watermarkStore;
+    private int apiCalls;
+    private int writeBatchSize = DEFAULT_WRITE_BATCH_SIZE;
+    private long writeMaxDelayMs = DEFAULT_WRITE_MAX_DELAY_MS;
+    private WriteBehind<CatalogEntry> catalogWrites;
+    private int unsavedPhotos;
+    private long lastStateSave = System.nanoTime();
 
     public UnsplashDownloader(String outputDir) throws IOException {
         this(outputDir, null);
     }
     
     public UnsplashDownloader(String outputDir, PhotoService photoService) throws IOException {
+        this(outputDir, photoService, null);
+    }
+    
+    /**
+     * @param blobStore store on the output directory's volume, or null for the default below
+     *                  ./unsplash-data
+     */
+    public UnsplashDownloader(String outputDir, PhotoService photoService, BlobStore blobStore) throws IOException {
         this.outputDir = outputDir; // This is the photos directory
         
         // Extract base output directory (parent of photos directory)
@@ -62,10 +115,16 @@ public class UnsplashDownloader {
                 .writeTimeout(30, TimeUnit.SECONDS)
                 .build();
                 
-        this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.objectMapper = PhotoJson.mapper();
         this.metadataHandler = new ImageMetadataHandler();
+        this.stateStore = StateStore.open(systemDir);
         this.stateFile = new File(systemDir, "download_state.json");
-        this.descriptionsFile = new File(baseOutputDir, "descriptions.txt");
+        this.stateIdsFile = new File(systemDir, "download_state.ids");
+        this.watermarkStore = new SyncWatermarkStore(systemDir);
+        this.metadataSidecar = MetadataSidecar.open(new File(baseOutputDir, "metadata").toPath());
+        this.blobStore = blobStore != null ? blobStore : BlobStore.forVolume(photosDir.toPath(),
+                Paths.get(DEFAULT_DATA_DIRECTORY, "blobs"), new File(systemDir, "blobs").toPath(),
+                Paths.get(DEFAULT_DATA_DIRECTORY, "config", "blob_stores.txt"));
         this.photoService = photoService;
         
         // Create output directory if it doesn't exist
@@ -75,13 +134,141 @@ public class UnsplashDownloader {
     public void setProgressCallback(DownloadService.DownloadProgressCallback callback) {
         this.progressCallback = callback;
     }
+    
+    public void setSkipNearDuplicates(boolean skipNearDuplicates) {
+        this.skipNearDuplicates = skipNearDuplicates;
+    }
+    
+    public void setPhotoLayout(PhotoLayout photoLayout) {
+        this.photoLayout = photoLayout != null ? photoLayout : PhotoLayout.FLAT;
+    }
+    
+    /**
+     * Points the downloader at a different API host, e.g. a local mock server
+     */
+    public void setApiBaseUrl(String apiBaseUrl) {
+        this.apiBaseUrl = normalizeBaseUrl(apiBaseUrl);
+    }
+    
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+    }
+    
+    /**
+     * Bounded pool for CPU-bound EXIF rewriting; without one it runs on the download thread
+     */
+    public void setImageExecutor(Executor imageExecutor) {
+        this.imageExecutor = imageExecutor;
+    }
+    
+    /**
+     * Token through which the job is paused, resumed or cancelled from outside
+     */
+    public void setDownloadControl(DownloadControl downloadControl) {
+        this.downloadControl = downloadControl != null ? downloadControl : new DownloadControl();
+    }
+    
+    /**
+     * Shared limiter for image transfers; the downloader uses its bulk lane
+     */
+    public void setBandwidthLimiter(BandwidthLimiter bandwidthLimiter) {
+        this.bandwidthLimiter = bandwidthLimiter != null ? bandwidthLimiter : BandwidthLimiter.unlimited();
+    }
+    
+    public void setRenditionPolicy(RenditionPolicy renditionPolicy) {
+        this.renditionPolicy = renditionPolicy != null ? renditionPolicy : RenditionPolicy.full();
+    }
+    
+    /**
+     * Where prefetched gallery thumbnails go; without one nothing is prefetched
+     */
+    public void setThumbnailDirectory(File thumbnailDirectory) {
+        this.thumbnailDirectory = thumbnailDirectory;
+    }
+    
+    /**
+     * How many photos may be downloaded, or how long may pass, before their catalog rows and
+     * the download state are written out
+     */
+    public void setWriteBehind(int batchSize, long maxDelayMs) {
+        this.writeBatchSize = Math.max(1, batchSize);
+        this.writeMaxDelayMs = Math.max(0, maxDelayMs);
+    }
+    
+    public static String normalizeBaseUrl(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            return DEFAULT_API_BASE_URL;
+        }
+        String trimmed = baseUrl.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
 
     public void downloadUserPhotos(String username) throws IOException {
-        loadOrCreateState(username);
+        downloadPhotos(PhotoSources.user(username));
+    }
+
+    public void downloadPhotos(PhotoSource source) throws IOException {
+        startRun();
+        try {
+            downloadAllPhotos(source, false);
+        } finally {
+            finishRun();
+        }
+    }
+
+    public int syncUserPhotos(String username) throws IOException {
+        return syncPhotos(PhotoSources.user(username));
+    }
+
+    /**
+     * Fetches only the photos published since the last complete run: walks the listing newest
+     * first and stops at the first photo of the watermark. Without a watermark this is a full
+     * download, which leaves one behind. Sources not listed newest first are walked in full,
+     * with photos already in the catalog skipped before any per-photo call.
+     *
+     * @return number of new photos downloaded
+     */
+    public int syncPhotos(PhotoSource source) throws IOException {
+        startRun();
+        try {
+            return syncNewPhotos(source);
+        } finally {
+            finishRun();
+        }
+    }
+
+    private void startRun() {
+        apiCalls = 0;
+        if (photoService != null) {
+            catalogWrites = new WriteBehind<>("catalog writes", this::writeCatalogBatch, writeBatchSize, writeMaxDelayMs);
+        }
+    }
+
+    /**
+     * Final durability barrier, also on failure or cancel: pending catalog rows, then the state
+     */
+    private void finishRun() throws IOException {
+        try {
+            if (catalogWrites != null) {
+                WriteBehind<CatalogEntry> writes = catalogWrites;
+                catalogWrites = null;
+                writes.close();
+            }
+            if (state != null && unsavedPhotos > 0) {
+                saveState();
+            }
+        } finally {
+            // Shared with other downloads into the same directory, so it stays open
+            metadataSidecar.flush();
+        }
+    }
+
+    private int downloadAllPhotos(PhotoSource source, boolean refreshTotal) throws IOException {
+        loadOrCreateState(source.getKey());
         
         // First, get total number of photos if not already known
-        if (state.getTotalPhotos() == 0) {
-            int totalPhotos = getTotalPhotos(username);
+        if (state.getTotalPhotos() == 0 || refreshTotal) {
+            int totalPhotos = getTotalPhotos(source);
             state.setTotalPhotos(totalPhotos);
             saveState();
             logger.info("Total photos to download: {}", totalPhotos);
@@ -98,96 +285,357 @@ public class UnsplashDownloader {
 
         if (remainingPhotos == 0) {
             logger.info("All photos have been downloaded!");
-            return;
+            if (source.isNewestFirst() && watermarkStore.get(source.getKey()) == null && apiKeyManager.hasAvailableKey()) {
+                // Done before watermarks existed; one page is enough to start syncing from here
+                recordWatermark(source, fetchPhotoPage(source, 1), 0);
+            }
+            return 0;
         }
 
         int page = 1;
         boolean hasMore = true;
+        List<Photo> firstPage = null;
+        int downloaded = 0;
+        boolean failures = false;
 
         while (hasMore) {
+            checkpoint();
+            
             // Check if we've hit the daily limit
             if (!apiKeyManager.hasAvailableKey()) {
                 logger.info("All API keys have reached daily limit. Resuming tomorrow.");
-                return;
+                return downloaded;
             }
 
-            List<Photo> photos = fetchPhotoPage(username, page);
+            long pageStart = System.nanoTime();
+            List<Photo> photos = fetchPhotoPage(source, page);
+            // The pause between pages is pacing, not API latency
+            long pageNanos = Math.max(0, System.nanoTime() - pageStart - TimeUnit.MILLISECONDS.toNanos(PAGE_DELAY_MS));
             
             if (photos.isEmpty()) {
                 hasMore = false;
                 continue;
             }
+            if (page == 1) {
+                firstPage = photos;
+            }
+            long pageShareNanos = pageNanos / photos.size();
 
-            for (Photo photo : photos) {
-                String fileName = String.format("%s_%s.jpg", username, photo.getId());
-                File outputFile = new File(outputDir, fileName);
-                
-                // Check both state and file existence for robust incremental download
-                if (state.getDownloadedPhotos().contains(photo.getId())) {
-                    logger.debug("Skipping already downloaded photo (in state): {}", photo.getId());
-                    continue;
-                }
-                
-                if (outputFile.exists()) {
-                    logger.info("Photo file exists but not in state, adding to state: {}", fileName);
-                    state.getDownloadedPhotos().add(photo.getId());
-                    saveState();
+            for (Photo photo : skipCataloged(photos)) {
+                PhotoOutcome outcome = processPhoto(photo, source, pageShareNanos,
+                    state.getDownloadedPhotos().size(), state.getTotalPhotos());
+                if (outcome == PhotoOutcome.SKIPPED) {
                     continue;
                 }
-
-                // Notify progress callback - photo started
-                if (progressCallback != null) {
-                    progressCallback.onPhotoStarted(photo.getId(), fileName, state.getDownloadedPhotos().size(), state.getTotalPhotos());
+                if (outcome == PhotoOutcome.DOWNLOADED) {
+                    downloaded++;
+                } else if (outcome == PhotoOutcome.FAILED) {
+                    failures = true;
                 }
 
-                try {
-                    // Fetch full photo details including tags
-                    Photo fullPhoto = fetchPhotoDetails(photo.getId());
-                    if (fullPhoto != null) {
-                        // Use full photo object with tags for download
-                        downloadPhoto(fullPhoto, username);
-                    } else {
-                        // Fallback to abbreviated photo if fetch fails
-                        logger.warn("Failed to fetch full photo details for {}, using abbreviated data", photo.getId());
-                        downloadPhoto(photo, username);
-                    }
-                    
-                    state.getDownloadedPhotos().add(photo.getId());
-                    saveState();
-                    
-                    // Notify progress callback - photo completed
-                    if (progressCallback != null) {
-                        progressCallback.onPhotoCompleted(photo.getId(), fileName, state.getDownloadedPhotos().size() - 1, state.getTotalPhotos());
-                    }
-                } catch (Exception e) {
-                    logger.error("Failed to download photo: {}", photo.getId(), e);
-                    
-                    // Notify progress callback - error
-                    if (progressCallback != null) {
-                        progressCallback.onError(photo.getId(), e.getMessage());
-                    }
-                }
-
-                logger.info("Progress: {}/{} photos downloaded (Total API usage: {}/{}, Available keys: {})", 
-                    state.getDownloadedPhotos().size(), 
-                    state.getTotalPhotos(),
-                    apiKeyManager.getTotalHourlyUsage(),
-                    apiKeyManager.getMaxHourlyLimit(),
-                    apiKeyManager.getAvailableKeysCount());
-
                 // Check rate limit after each download
                 if (!apiKeyManager.hasAvailableKey()) {
                     logger.info("All API keys have reached hourly limit. Progress saved. Next reset: {}", apiKeyManager.getNextResetTime());
-                    return;
+                    return downloaded;
                 }
             }
 
+            // Page boundary - make this page's catalog rows, state and metadata records durable
+            saveState();
+            metadataSidecar.flush();
             page++;
         }
+
+        // Only a walk without gaps may serve as the starting point for incremental syncs
+        if (!failures && firstPage != null && source.isNewestFirst()) {
+            recordWatermark(source, firstPage, downloaded);
+        }
+        return downloaded;
+    }
+
+    private int syncNewPhotos(PhotoSource source) throws IOException {
+        String key = source.getKey();
+        if (!source.isNewestFirst()) {
+            logger.info("{} is not listed newest first, syncing by walking the whole listing", key);
+            return downloadAllPhotos(source, true);
+        }
+
+        SyncWatermark watermark = watermarkStore.get(key);
+        if (watermark == null || watermark.getLatestPhotoIds().isEmpty()) {
+            logger.info("No sync watermark for {} yet, running a full download", key);
+            return downloadAllPhotos(source, false);
+        }
+
+        loadOrCreateState(key);
+        Set<String> knownIds = new HashSet<>(watermark.getLatestPhotoIds());
+
+        // Newest first, so everything before the first known photo is new
+        List<Photo> newPhotos = new ArrayList<>();
+        int page = 1;
+        boolean reachedWatermark = false;
+        while (!reachedWatermark) {
+            checkpoint();
+            if (!apiKeyManager.hasAvailableKey()) {
+                logger.info("All API keys have reached their limit, sync of {} postponed", key);
+                return 0;
+            }
+
+            List<Photo> photos = fetchPhotoPage(source, page);
+            for (Photo photo : photos) {
+                if (knownIds.contains(photo.getId())) {
+                    reachedWatermark = true;
+                    break;
+                }
+                newPhotos.add(photo);
+            }
+            if (photos.size() < PER_PAGE) {
+                break;
+            }
+            page++;
+        }
+        if (!reachedWatermark) {
+            // Every watermarked photo was deleted; the rest of the walk still skips what is on disk
+            logger.warn("Watermark of {} not found in the listing, walked all {} pages", key, page);
+        }
+
+        List<Photo> pending = skipCataloged(newPhotos);
+        logger.info("Sync of {}: {} new photos since {}, {} of them not in the catalog yet", key, newPhotos.size(),
+            watermark.getLastSync(), pending.size());
+        if (progressCallback != null) {
+            progressCallback.onTotalPhotosDiscovered(pending.size());
+        }
+
+        int downloaded = 0;
+        boolean failures = false;
+        for (int i = 0; i < pending.size(); i++) {
+            PhotoOutcome outcome = processPhoto(pending.get(i), source, 0, i, pending.size());
+            if (outcome == PhotoOutcome.SKIPPED) {
+                continue;
+            }
+            if (outcome == PhotoOutcome.DOWNLOADED) {
+                downloaded++;
+            } else if (outcome == PhotoOutcome.FAILED) {
+                failures = true;
+            }
+
+            if (!apiKeyManager.hasAvailableKey()) {
+                // The watermark stays put, so the next sync picks up the rest
+                logger.info("All API keys have reached hourly limit, {} of {} new photos of {} downloaded",
+                    downloaded, pending.size(), key);
+                metadataSidecar.flush();
+                return downloaded;
+            }
+        }
+        metadataSidecar.flush();
+
+        if (state.getTotalPhotos() > 0) {
+            state.setTotalPhotos(Math.max(state.getTotalPhotos() + downloaded, state.getDownloadedPhotos().size()));
+            saveState();
+        }
+
+        if (failures) {
+            logger.warn("Some new photos of {} failed, the watermark is kept for the next sync", key);
+        } else {
+            List<String> ids = new ArrayList<>();
+            for (Photo photo : newPhotos) {
+                ids.add(photo.getId());
+            }
+            ids.addAll(watermark.getLatestPhotoIds());
+            saveWatermark(key, ids, downloaded);
+        }
+        return downloaded;
+    }
+
+    /**
+     * Downloads one listed photo unless it is already there; index and total only feed progress
+     */
+    private PhotoOutcome processPhoto(Photo photo, PhotoSource source, long pageShareNanos, int index, int total) throws IOException {
+        String owner = source.fileOwner(photo);
+        String fileName = String.format("%s_%s.jpg", owner, photo.getId());
+        
+        // Check both state and file existence for robust incremental download; the state check
+        // comes first since resolving the file can cost a catalog lookup
+        if (state.getDownloadedPhotos().contains(photo.getId())) {
+            logger.debug("Skipping already downloaded photo (in state): {}", photo.getId());
+            return PhotoOutcome.SKIPPED;
+        }
+        
+        File outputFile = existingPhotoFile(photo.getId(), fileName);
+        File existingFile = outputFile.exists() ? outputFile : new File(outputDir, fileName);
+        if (existingFile.exists()) {
+            logger.info("Photo file exists but not in state, adding to state: {}", fileName);
+            catalogExistingFile(photo, existingFile);
+            state.getDownloadedPhotos().add(photo.getId());
+            stateChanged();
+            return PhotoOutcome.SKIPPED;
+        }
+
+        checkpoint();
+        
+        // Notify progress callback - photo started
+        if (progressCallback != null) {
+            progressCallback.onPhotoStarted(photo.getId(), fileName, index, total);
+        }
+
+        PhotoOutcome outcome;
+        PhotoTiming timing = new PhotoTiming(photo.getId());
+        timing.addSpan(PhotoTiming.PAGE, pageShareNanos);
+        long photoStart = System.nanoTime();
+        try {
+            // Fetch full photo details including tags
+            Photo fullPhoto = fetchPhotoDetails(photo.getId());
+            timing.addSpan(PhotoTiming.DETAILS, System.nanoTime() - photoStart);
+            checkpoint();
+            boolean stored;
+            if (fullPhoto != null) {
+                // Use full photo object with tags for download
+                stored = downloadPhoto(fullPhoto, owner, timing);
+            } else {
+                // Fallback to abbreviated photo if fetch fails
+                logger.warn("Failed to fetch full photo details for {}, using abbreviated data", photo.getId());
+                stored = downloadPhoto(photo, owner, timing);
+            }
+            if (stored) {
+                countPhoto("downloaded");
+            }
+            
+            long stateStart = System.nanoTime();
+            state.getDownloadedPhotos().add(photo.getId());
+            stateChanged();
+            timing.addSpan(PhotoTiming.STATE, System.nanoTime() - stateStart);
+            timing.addSpan(PhotoTiming.TOTAL, System.nanoTime() - photoStart + pageShareNanos);
+            
+            // Notify progress callback - photo completed
+            if (progressCallback != null) {
+                progressCallback.onPhotoTimings(timing);
+                progressCallback.onPhotoCompleted(photo.getId(), fileName, index, total);
+            }
+            outcome = stored ? PhotoOutcome.DOWNLOADED : PhotoOutcome.DUPLICATE;
+        } catch (DownloadCancelledException | WriteBehind.WriteFailedException e) {
+            // Not a problem with this photo, the run can't go on
+            throw e;
+        } catch (Exception e) {
+            // An aborted transfer surfaces as an I/O error, report it as the cancellation it is
+            downloadControl.throwIfCancelled();
+            logger.error("Failed to download photo: {}", photo.getId(), e);
+            countPhoto("failed");
+            
+            // Notify progress callback - error
+            if (progressCallback != null) {
+                progressCallback.onError(photo.getId(), e.getMessage());
+            }
+            outcome = PhotoOutcome.FAILED;
+        }
+
+        logger.info("Progress: {}/{} photos downloaded (Total API usage: {}/{}, Available keys: {})", 
+            state.getDownloadedPhotos().size(), 
+            state.getTotalPhotos(),
+            apiKeyManager.getTotalHourlyUsage(),
+            apiKeyManager.getMaxHourlyLimit(),
+            apiKeyManager.getAvailableKeysCount());
+        return outcome;
+    }
+
+    /**
+     * A file without a state entry may have been downloaded right before a crash, while its
+     * catalog row was still queued. Queue the row again unless the catalog already has it.
+     */
+    private void catalogExistingFile(Photo photo, File file) throws IOException {
+        if (catalogWrites == null) {
+            return;
+        }
+        try {
+            if (!photoService.findExistingIds(List.of(photo.getId())).isEmpty()) {
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn("Catalog lookup for existing file {} failed: {}", file.getName(), e.getMessage());
+            return;
+        }
+
+        Photo fullPhoto = fetchPhotoDetails(photo.getId());
+        Photo source = fullPhoto != null ? fullPhoto : photo;
+        String contentHash = BlobStore.sha256(file.toPath());
+        writeMetadataRecord(source, file.getName(), contentHash);
+        catalogWrites.add(CatalogEntry.fromDownload(source, file.getAbsolutePath(), hashFile(file, photo.getId()), contentHash));
+        logger.info("Photo {} was missing from the catalog, queued its row again", photo.getId());
+    }
+
+    /**
+     * Starts the watermark from the newest listed photos that are actually on disk
+     */
+    private void recordWatermark(PhotoSource source, List<Photo> newestPhotos, int newPhotos) throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (Photo photo : newestPhotos) {
+            String fileName = String.format("%s_%s.jpg", source.fileOwner(photo), photo.getId());
+            if (state.getDownloadedPhotos().contains(photo.getId()) || existingPhotoFile(photo.getId(), fileName).exists()
+                    || new File(outputDir, fileName).exists()) {
+                ids.add(photo.getId());
+            }
+        }
+        if (!ids.isEmpty()) {
+            saveWatermark(source.getKey(), ids, newPhotos);
+        }
+    }
+
+    /**
+     * Drops photos the catalog already has, before any per-photo API call is spent on them
+     */
+    private List<Photo> skipCataloged(List<Photo> photos) throws IOException {
+        if (photoService == null || photos.isEmpty()) {
+            return photos;
+        }
+
+        List<String> unknownIds = new ArrayList<>();
+        for (Photo photo : photos) {
+            if (!state.getDownloadedPhotos().contains(photo.getId())) {
+                unknownIds.add(photo.getId());
+            }
+        }
+        if (unknownIds.isEmpty()) {
+            return photos;
+        }
+
+        Set<String> cataloged;
+        try {
+            cataloged = photoService.findExistingIds(unknownIds);
+        } catch (Exception e) {
+            logger.warn("Catalog lookup failed, checking photos one by one: {}", e.getMessage());
+            return photos;
+        }
+        if (cataloged.isEmpty()) {
+            return photos;
+        }
+
+        List<Photo> remaining = new ArrayList<>(photos.size() - cataloged.size());
+        for (Photo photo : photos) {
+            if (!cataloged.contains(photo.getId())) {
+                remaining.add(photo);
+            }
+        }
+        state.getDownloadedPhotos().addAll(cataloged);
+        saveState();
+        Counter.builder("unsplash.photos")
+            .description("Photos processed by outcome")
+            .tag("outcome", "cataloged")
+            .register(meterRegistry)
+            .increment(cataloged.size());
+        logger.info("Skipping {} photos already in the catalog", cataloged.size());
+        return remaining;
     }
 
-    private int getTotalPhotos(String username) throws IOException {
-        String url = String.format("%s/users/%s", API_BASE_URL, username);
+    private void saveWatermark(String key, List<String> newestIds, int newPhotos) throws IOException {
+        SyncWatermark watermark = new SyncWatermark(key);
+        watermark.setLatestPhotoIds(new ArrayList<>(newestIds.subList(0, Math.min(WATERMARK_SIZE, newestIds.size()))));
+        watermark.setLastSync(LocalDateTime.now());
+        watermark.setLastSyncNewPhotos(newPhotos);
+        watermark.setLastSyncApiCalls(apiCalls);
+        watermarkStore.put(watermark);
+        logger.info("Sync watermark of {} now at {} ({} API calls this run)", key, watermark.getLatestPhotoIds().get(0), apiCalls);
+    }
+
+    private int getTotalPhotos(PhotoSource source) throws IOException {
+        HttpUrl url = source.totalUrl(HttpUrl.get(apiBaseUrl));
         
         String accessToken = apiKeyManager.getNextAvailableKey();
         if (accessToken == null) {
@@ -199,30 +647,29 @@ public class UnsplashDownloader {
             .header("Authorization", "Client-ID " + accessToken)
             .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Response response = execute(request)) {
             if (!response.isSuccessful()) {
-                throw new IOException("Failed to get user info: " + response);
+                recordApiCall(sample, "total", response.code());
+                throw new IOException("Failed to get photo count of " + source.getKey() + ": " + response);
             }
 
-            Map<String, Object> userInfo = objectMapper.readValue(
-                response.body().string(),
-                new TypeReference<Map<String, Object>>() {}
-            );
+            // e.g. total_photos of a user or collection, total of a search
+            Integer totalPhotos = PhotoJson.readIntField(response.body().byteStream(), source.getTotalField());
+            recordApiCall(sample, "total", response.code());
 
             apiKeyManager.recordUsage(accessToken);
 
-            // The total_photos field is directly in the user info object
-            Object totalPhotos = userInfo.get("total_photos");
-            if (totalPhotos instanceof Integer) {
-                return (Integer) totalPhotos;
+            if (totalPhotos != null) {
+                return totalPhotos;
             } else {
-                throw new IOException("Unexpected total_photos format in API response");
+                throw new IOException("Unexpected " + source.getTotalField() + " format in API response");
             }
         }
     }
 
     private Photo fetchPhotoDetails(String photoId) throws IOException {
-        String url = String.format("%s/photos/%s", API_BASE_URL, photoId);
+        String url = String.format("%s/photos/%s", apiBaseUrl, photoId);
         
         String accessToken = apiKeyManager.getNextAvailableKey();
         if (accessToken == null) {
@@ -241,8 +688,10 @@ public class UnsplashDownloader {
                 .header("Authorization", "Client-ID " + accessToken)
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Response response = execute(request)) {
             if (!response.isSuccessful()) {
+                recordApiCall(sample, "photo-details", response.code());
                 if (response.code() == 403) {
                     // Mark this key as rate limited
                     apiKeyManager.markKeyRateLimited(accessToken);
@@ -256,24 +705,22 @@ public class UnsplashDownloader {
 
             apiKeyManager.recordUsage(accessToken);
             
-            Photo photo = objectMapper.readValue(
-                    response.body().string(),
-                    Photo.class
-            );
+            Photo photo = PhotoJson.readPhoto(response.body().byteStream());
+            recordApiCall(sample, "photo-details", response.code());
             
             logger.debug("Fetched full photo details for {} with {} tags", photoId, 
                 photo.getTags() != null ? photo.getTags().size() : 0);
             
             return photo;
         } catch (Exception e) {
+            recordApiCall(sample, "photo-details", -1);
             logger.warn("Exception while fetching photo details for {}: {}", photoId, e.getMessage());
             return null;
         }
     }
 
-    private List<Photo> fetchPhotoPage(String username, int page) throws IOException {
-        String url = String.format("%s/users/%s/photos?page=%d&per_page=%d", 
-                API_BASE_URL, username, page, PER_PAGE);
+    private List<Photo> fetchPhotoPage(PhotoSource source, int page) throws IOException {
+        HttpUrl url = source.pageUrl(HttpUrl.get(apiBaseUrl), page, PER_PAGE);
 
         String accessToken = apiKeyManager.getNextAvailableKey();
         if (accessToken == null) {
@@ -293,8 +740,10 @@ public class UnsplashDownloader {
                 .header("Authorization", "Client-ID " + accessToken)
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Response response = execute(request)) {
             if (!response.isSuccessful()) {
+                recordApiCall(sample, "photo-page", response.code());
                 if (response.code() == 403) {
                     // Mark this key as rate limited
                     apiKeyManager.markKeyRateLimited(accessToken);
@@ -304,7 +753,7 @@ public class UnsplashDownloader {
                     if (availableKeys > 0) {
                         logger.warn("⚠️ Rate limit hit for current API key. Switching to next available key ({} remaining).", availableKeys);
                         // Recursively try with next available key
-                        return fetchPhotoPage(username, page);
+                        return fetchPhotoPage(source, page);
                     } else {
                         logger.warn("⚠️ All API keys have hit rate limits. Demo apps are limited to 50 requests/hour per key.");
                         logger.warn("⚠️ Next reset time: {}. Consider adding more API keys or waiting.", apiKeyManager.getNextResetTime());
@@ -318,20 +767,71 @@ public class UnsplashDownloader {
 
             apiKeyManager.recordUsage(accessToken);
             
-            List<Photo> photos = objectMapper.readValue(
-                    response.body().string(),
-                    new TypeReference<List<Photo>>() {}
-            );
+            List<Photo> photos = source.parsePage(response.body().byteStream());
+            recordApiCall(sample, "photo-page", response.code());
 
             // Add delay between API calls
-            Thread.sleep(1000);
+            downloadControl.sleep(PAGE_DELAY_MS);
             return photos;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Download interrupted", e);
         }
     }
     
+    /**
+     * Runs a request through the job's control so cancelling aborts it, even mid-body
+     */
+    private Response execute(Request request) throws IOException {
+        Call call = downloadControl.track(client.newCall(request));
+        try {
+            return call.execute();
+        } catch (IOException e) {
+            downloadControl.throwIfCancelled();
+            throw e;
+        }
+    }
+    
+    /**
+     * Stage boundary: makes progress durable before parking on pause, throws on cancel
+     */
+    private void checkpoint() throws IOException {
+        if (downloadControl.isPaused() && !downloadControl.isCancelled()) {
+            saveState();
+            metadataSidecar.flush();
+            logger.info("Download paused after {} photos", state.getDownloadedPhotos().size());
+            downloadControl.checkpoint();
+            logger.info("Download resumed");
+        }
+        downloadControl.throwIfCancelled();
+    }
+    
+    private void recordApiCall(Timer.Sample sample, String endpoint, int status) {
+        apiCalls++;
+        String outcome;
+        if (status < 0) {
+            outcome = "io-error";
+        } else if (status == 403) {
+            outcome = "rate-limited";
+        } else if (status >= 500) {
+            outcome = "server-error";
+        } else if (status >= 400) {
+            outcome = "client-error";
+        } else {
+            outcome = "success";
+        }
+        sample.stop(Timer.builder("unsplash.api.requests")
+            .description("Unsplash API calls by endpoint and outcome")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+    }
+    
+    private void countPhoto(String outcome) {
+        Counter.builder("unsplash.photos")
+            .description("Photos processed by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+    
     private boolean isDummyKey(String apiKey) {
         if (apiKey == null) {
             return true;
@@ -351,77 +851,310 @@ public class UnsplashDownloader {
                key.startsWith("dummy_test_key");
     }
 
-    private void downloadPhoto(Photo photo, String username) throws IOException {
+    /**
+     * Downloads and stores one photo
+     *
+     * @return false if it was skipped as a near-duplicate of a cataloged photo
+     */
+    private boolean downloadPhoto(Photo photo, String username, PhotoTiming timing) throws IOException {
         String fileName = String.format("%s_%s.jpg", username, photo.getId());
-        File outputFile = new File(outputDir, fileName);
+        File outputFile = photoFile(photo.getId(), fileName);
 
-        // Download the photo
-        URL photoUrl = new URL(photo.getUrls().getFull());
-        try (ReadableByteChannel rbc = Channels.newChannel(photoUrl.openStream());
-            FileOutputStream fos = new FileOutputStream(outputFile)) {
-            fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
+        // Duplicates can only be skipped if the small CDN rendition is hashed before the full
+        // download; a prefetched thumbnail gives that hash for free. Otherwise the downloaded file
+        // is hashed, which costs no extra request.
+        boolean prefetch = renditionPolicy.isPrefetchThumbnail() && thumbnailDirectory != null;
+        boolean hashFirst = prefetch || (skipNearDuplicates && photoService != null);
+        Long perceptualHash = null;
+        if (hashFirst) {
+            long hashStart = System.nanoTime();
+            perceptualHash = prefetch ? prefetchThumbnail(photo) : computePerceptualHash(photo);
+            List<String> duplicates = findNearDuplicates(photo, perceptualHash);
+            timing.addSpan(PhotoTiming.HASH, System.nanoTime() - hashStart);
+            if (!duplicates.isEmpty()) {
+                if (skipNearDuplicates) {
+                    logger.info("Skipping photo {}: near-duplicate of {}", photo.getId(), duplicates);
+                    countPhoto("skipped-duplicate");
+                    if (prefetch) {
+                        new File(thumbnailDirectory, ThumbnailService.thumbnailFileName(photo.getId())).delete();
+                    }
+                    return false;
+                }
+                logger.info("Photo {} looks like a near-duplicate of {}", photo.getId(), duplicates);
+            }
+        }
+        checkpoint();
+
+        // Download the photo into the blob store's scratch area
+        File tempFile = blobStore.newTempFile(fileName).toFile();
+        Request request = new Request.Builder()
+                .url(renditionPolicy.imageUrl(photo.getUrls()))
+                .build();
+        String rendition = renditionPolicy.isOriginal() ? "full" : "resized";
+        Timer.Sample transfer = Timer.start(meterRegistry);
+        long bytes;
+        try (Response response = execute(request)) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Failed to download image: " + response.code());
+            }
+            InputStream body = bandwidthLimiter.throttle(response.body().byteStream(), BandwidthLimiter.Lane.BULK);
+            try (ReadableByteChannel rbc = Channels.newChannel(body);
+                FileOutputStream fos = new FileOutputStream(tempFile)) {
+                bytes = fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
+            }
+        } catch (IOException e) {
+            // Don't leave a partial file behind in the scratch area
+            tempFile.delete();
+            throw e;
+        }
+        timing.addSpan(PhotoTiming.TRANSFER, transfer.stop(meterRegistry.timer("unsplash.download.transfer", "rendition", rendition)));
+        timing.setBytes(bytes);
+        meterRegistry.counter("unsplash.download.bytes", "rendition", rendition).increment(bytes);
+
+        if (!hashFirst && photoService != null) {
+            long hashStart = System.nanoTime();
+            perceptualHash = hashFile(tempFile, photo.getId());
+            List<String> duplicates = findNearDuplicates(photo, perceptualHash);
+            if (!duplicates.isEmpty()) {
+                logger.info("Photo {} looks like a near-duplicate of {}", photo.getId(), duplicates);
+            }
+            timing.addSpan(PhotoTiming.HASH, System.nanoTime() - hashStart);
         }
 
-        // Add metadata to the downloaded photo
+        // Add metadata before hashing so the blob holds the final bytes
+        Timer.Sample metadata = Timer.start(meterRegistry);
         try {
-            metadataHandler.addMetadata(outputFile, photo);
+            writeMetadata(tempFile, photo);
         } catch (Exception e) {
             logger.error("Failed to add metadata to photo {}: {}", fileName, e.getMessage());
         }
+        timing.addSpan(PhotoTiming.METADATA, metadata.stop(meterRegistry.timer("unsplash.metadata.write")));
+
+        // Store the content once and expose it in the photos directory as a hard link
+        long storeStart = System.nanoTime();
+        String contentHash = blobStore.put(tempFile.toPath());
+        blobStore.link(contentHash, outputFile.toPath());
 
-        // Write description to the log file
-        writeDescription(photo);
+        // Append metadata to the sidecar log
+        writeMetadataRecord(photo, outputFile.getName(), contentHash);
+        timing.addSpan(PhotoTiming.STORE, System.nanoTime() - storeStart);
         
-        // Save to database if service is available
-        if (photoService != null) {
-            try {
-                photoService.savePhoto(photo, outputFile.getAbsolutePath(), username);
-            } catch (Exception e) {
-                logger.error("Failed to save photo to database {}: {}", fileName, e.getMessage());
+        // Queue for the database if service is available; written in batches off this thread
+        if (catalogWrites != null) {
+            long databaseStart = System.nanoTime();
+            catalogWrites.add(CatalogEntry.fromDownload(photo, outputFile.getAbsolutePath(), perceptualHash, contentHash));
+            timing.addSpan(PhotoTiming.DATABASE, System.nanoTime() - databaseStart);
+        }
+        return true;
+    }
+
+    private void writeMetadata(File file, Photo photo) throws Exception {
+        onImageExecutor(() -> {
+            metadataHandler.addMetadata(file, photo);
+            return null;
+        });
+    }
+
+    private Long hashFile(File file, String photoId) {
+        try {
+            return onImageExecutor(() -> PerceptualHash.dHash(file));
+        } catch (Exception e) {
+            logger.debug("Failed to compute perceptual hash for {}: {}", photoId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs CPU-bound image work on the bounded pool, or here if there is none or its queue is full
+     */
+    private <T> T onImageExecutor(Callable<T> task) throws Exception {
+        if (imageExecutor == null) {
+            return task.call();
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, imageExecutor).join();
+        } catch (RejectedExecutionException e) {
+            return task.call();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Cataloged photos within the duplicate distance of the hash, other than the photo itself
+     */
+    private List<String> findNearDuplicates(Photo photo, Long perceptualHash) {
+        if (perceptualHash == null || photoService == null) {
+            return List.of();
+        }
+        List<String> duplicates = photoService.findNearDuplicates(perceptualHash);
+        duplicates.remove(photo.getId());
+        return duplicates;
+    }
+
+    /**
+     * Where a photo downloaded now goes
+     */
+    private File photoFile(String photoId, String fileName) {
+        return photoLayout.resolve(new File(outputDir).toPath(), fileName, photoId, LocalDateTime.now()).toFile();
+    }
+
+    /**
+     * Where an earlier download of the photo would be. The year-month layout places it by the
+     * catalog's download date, not by today's.
+     */
+    private File existingPhotoFile(String photoId, String fileName) {
+        if (photoLayout == PhotoLayout.YEAR_MONTH && photoService != null) {
+            LocalDateTime downloadDate = photoService.getDownloadDate(photoId);
+            if (downloadDate != null) {
+                return photoLayout.resolve(new File(outputDir).toPath(), fileName, photoId, downloadDate).toFile();
+            }
+        }
+        return photoFile(photoId, fileName);
+    }
+
+    private Long computePerceptualHash(Photo photo) {
+        // Only useful when there is a catalog to compare against
+        if (photoService == null || photo.getUrls() == null || photo.getUrls().getThumb() == null) {
+            return null;
+        }
+
+        Request request = new Request.Builder()
+                .url(photo.getUrls().getThumb())
+                .build();
+
+        Timer.Sample transfer = Timer.start(meterRegistry);
+        try (Response response = execute(request)) {
+            if (!response.isSuccessful() || response.body() == null) {
+                logger.debug("Could not fetch thumbnail for perceptual hash of {}: {}", photo.getId(), response.code());
+                return null;
             }
+            Long hash = PerceptualHash.dHash(bandwidthLimiter.throttle(response.body().byteStream(), BandwidthLimiter.Lane.BULK));
+            transfer.stop(meterRegistry.timer("unsplash.download.transfer", "rendition", "thumb"));
+            return hash;
+        } catch (Exception e) {
+            logger.debug("Failed to compute perceptual hash for {}: {}", photo.getId(), e.getMessage());
+            return null;
         }
     }
 
-    private void writeDescription(Photo photo) {
-        File descFile = descriptionsFile;
-        try (PrintWriter writer = new PrintWriter(new FileWriter(descFile, true))) {
-            writer.printf("Photo ID: %s%n", photo.getId());
-            writer.printf("Description: %s%n", photo.getDescription());
-            if (photo.getUser() != null) {
-                writer.printf("Photographer: %s%n", photo.getUser().getName());
+    /**
+     * Fetches the gallery-sized rendition before the main image and stores it as the photo's
+     * thumbnail. The same bytes feed the perceptual hash, so this costs no extra request.
+     */
+    private Long prefetchThumbnail(Photo photo) {
+        if (photo.getUrls() == null) {
+            return null;
+        }
+        String url = RenditionPolicy.thumbnailUrl(photo.getUrls(), ThumbnailService.THUMBNAIL_SIZE);
+        if (url == null) {
+            return null;
+        }
+
+        Request request = new Request.Builder()
+                .url(url)
+                .build();
+
+        Timer.Sample transfer = Timer.start(meterRegistry);
+        try (Response response = execute(request)) {
+            if (!response.isSuccessful() || response.body() == null) {
+                logger.debug("Could not prefetch thumbnail of {}: {}", photo.getId(), response.code());
+                return null;
             }
-            if (photo.getTags() != null && !photo.getTags().isEmpty()) {
-                writer.printf("Tags: %s%n",
-                    photo.getTags().stream()
-                        .map(Photo.Tag::getTitle)
-                        .collect(Collectors.joining(", "))
-                );
+            byte[] bytes;
+            try (InputStream in = bandwidthLimiter.throttle(response.body().byteStream(), BandwidthLimiter.Lane.BULK)) {
+                bytes = in.readAllBytes();
             }
-            writer.println("-------------------");
+            transfer.stop(meterRegistry.timer("unsplash.download.transfer", "rendition", "thumb"));
+            meterRegistry.counter("unsplash.download.bytes", "rendition", "thumb").increment(bytes.length);
+
+            Path target = thumbnailDirectory.toPath().resolve(ThumbnailService.thumbnailFileName(photo.getId()));
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.createDirectories(target.getParent());
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+
+            return PerceptualHash.dHash(new ByteArrayInputStream(bytes));
+        } catch (Exception e) {
+            logger.debug("Failed to prefetch thumbnail of {}: {}", photo.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeMetadataRecord(Photo photo, String fileName, String contentHash) {
+        try {
+            metadataSidecar.append(photo, fileName, contentHash);
         } catch (IOException e) {
-            logger.error("Failed to write description for photo {}", photo.getId());
+            logger.error("Failed to write metadata record for photo {}: {}", photo.getId(), e.getMessage());
         }
     }
+
     private void loadOrCreateState(String username) throws IOException {
-        if (stateFile.exists()) {
+        byte[] stored = stateStore.get(DOWNLOAD_STATE_KEY);
+        if (stored != null) {
+            state = objectMapper.readValue(stored, DownloadState.class);
+        } else if (stateFile.exists()) {
+            // Written by an earlier version; moves into the state store on the next save
             state = objectMapper.readValue(stateFile, DownloadState.class);
-            if (!username.equals(state.getUsername())) {
-                // If username changed, create new state
-                state = new DownloadState();
-                state.setUsername(username);
-            }
         } else {
+            state = null;
+        }
+
+        if (state == null || !username.equals(state.getUsername())) {
+            // If username changed, create new state
             state = new DownloadState();
             state.setUsername(username);
+        } else if (state.getDownloadedPhotos().isEmpty() && stateIdsFile.exists()) {
+            // A state file still holding the IDs as JSON is migrated to the binary file on the next save
+            state.setDownloadedPhotoIds(PhotoIdSet.load(stateIdsFile));
+        }
+    }
+
+    /**
+     * Runs on the write-behind thread; a failure surfaces at the next state save and ends the run
+     */
+    private void writeCatalogBatch(List<CatalogEntry> batch) {
+        photoService.savePhotoBatch(batch);
+    }
+
+    /**
+     * Saves the download state once every write batch size photos or max delay, instead of after each photo
+     */
+    private void stateChanged() throws IOException {
+        unsavedPhotos++;
+        if (unsavedPhotos >= writeBatchSize
+            || System.nanoTime() - lastStateSave >= TimeUnit.MILLISECONDS.toNanos(writeMaxDelayMs)) {
+            saveState();
         }
     }
 
+    /**
+     * Durability barrier: queued catalog rows are written before the state that counts their
+     * photos as downloaded, so a crash never leaves a downloaded photo out of the catalog
+     */
     private void saveState() throws IOException {
+        if (catalogWrites != null) {
+            catalogWrites.flush();
+        }
+        unsavedPhotos = 0;
+        lastStateSave = System.nanoTime();
         state.setLastUpdate(LocalDateTime.now());
-        objectMapper.writeValue(stateFile, state);
+        // IDs first, so the state never names a user whose IDs have not been written yet
+        state.getDownloadedPhotos().save(stateIdsFile);
+        stateStore.put(DOWNLOAD_STATE_KEY, objectMapper.writeValueAsBytes(state));
     }
 
     public ApiKeyManager getApiKeyManager() {
         return apiKeyManager;
     }
+
+    private enum PhotoOutcome {
+        SKIPPED, DOWNLOADED, DUPLICATE, FAILED
+    }
 }
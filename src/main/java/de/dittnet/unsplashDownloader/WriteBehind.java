@@ -0,0 +1,130 @@
+package de.dittnet.unsplashDownloader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind stage for side effects of a download job that don't have to finish before the
+ * next photo starts. Items are collected into micro-batches and handed to the writer on a
+ * background thread once batchSize items are queued or the oldest has waited maxDelay.
+ * Batches are written in order; {@link #flush()} is the durability barrier that waits until
+ * everything queued so far has been written. Once a batch has failed, every later flush fails
+ * too, so nothing that depends on the lost batch is recorded as durable.
+ */
+public class WriteBehind<T> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehind.class);
+
+    private final String name;
+    private final Consumer<List<T>> writer;
+    private final int batchSize;
+    private final long maxDelayMs;
+    private final ScheduledExecutorService executor;
+
+    private List<T> pending = new ArrayList<>();
+    private ScheduledFuture<?> deadline;
+    private volatile Exception failure;
+
+    public WriteBehind(String name, Consumer<List<T>> writer, int batchSize, long maxDelayMs) {
+        this.name = name;
+        this.writer = writer;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDelayMs = Math.max(0, maxDelayMs);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void add(T item) {
+        pending.add(item);
+        if (pending.size() >= batchSize) {
+            handOff();
+        } else if (deadline == null) {
+            deadline = executor.schedule(this::handOffDue, maxDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Hands over what is queued and waits until all batches so far have been written
+     */
+    public void flush() throws IOException {
+        synchronized (this) {
+            handOff();
+        }
+        try {
+            // The executor runs tasks in order, so this completes after every earlier batch
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing " + name);
+        } catch (ExecutionException e) {
+            throw new WriteFailedException("Failed to flush " + name, e.getCause());
+        }
+        Exception failed = failure;
+        if (failed != null) {
+            throw new WriteFailedException("Failed to write " + name + ": " + failed.getMessage(), failed);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private synchronized void handOffDue() {
+        deadline = null;
+        handOff();
+    }
+
+    private void handOff() {
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<T> batch = pending;
+        pending = new ArrayList<>();
+        executor.execute(() -> write(batch));
+    }
+
+    private void write(List<T> batch) {
+        try {
+            writer.accept(batch);
+        } catch (Exception e) {
+            // Reported by the next flush; the executor thread has nobody to throw to
+            logger.error("Write-behind batch of {} {} failed: {}", batch.size(), name, e.getMessage(), e);
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * A queued batch could not be written
+     */
+    public static class WriteFailedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public WriteFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.dittnet.unsplashDownloader.config;
+
+import de.dittnet.unsplashDownloader.BandwidthLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalTime;
+
+@Configuration
+public class BandwidthConfig {
+    private static final Logger logger = LoggerFactory.getLogger(BandwidthConfig.class);
+    
+    // Per second, e.g. 2MB; 0 disables the limit
+    @Value("${app.bandwidth.day-limit:0}")
+    private DataSize dayLimit;
+    
+    @Value("${app.bandwidth.night-limit:0}")
+    private DataSize nightLimit;
+    
+    // HH:mm, may wrap around midnight
+    @Value("${app.bandwidth.night-start:23:00}")
+    private String nightStart;
+    
+    @Value("${app.bandwidth.night-end:07:00}")
+    private String nightEnd;
+    
+    @Bean
+    public BandwidthLimiter bandwidthLimiter() {
+        if (dayLimit.toBytes() > 0 || nightLimit.toBytes() > 0) {
+            logger.info("Image bandwidth limited to {}/s by day and {}/s at night ({} - {})",
+                dayLimit, nightLimit, nightStart, nightEnd);
+        }
+        return new BandwidthLimiter(dayLimit.toBytes(), nightLimit.toBytes(),
+            LocalTime.parse(nightStart.trim()), LocalTime.parse(nightEnd.trim()));
+    }
+}
@@ -1,28 +1,68 @@
 package de.dittnet.unsplashDownloader.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.util.ClassUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import de.dittnet.unsplashDownloader.service.DatabaseSyncService;
 
-import javax.sql.DataSource;
-
+/**
+ * Catalog datasource. The default backend is an embedded H2 file database whose cache and
+ * write settings come from app.database.h2.*; app.database.backend=postgresql switches to a
+ * PostgreSQL server for very large catalogs. The pool is Hikari in both cases and is tuned
+ * through spring.datasource.hikari.*. The schema is managed by Flyway (db/migration/{vendor}).
+ */
 @Configuration
 public class DatabaseConfig {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
+    private static final String POSTGRESQL_DRIVER = "org.postgresql.Driver";
     
     @Autowired
     private StorageConfig storageConfig;
     
+    @Value("${app.database.backend:h2}")
+    private String backend;
+    
+    // Empty values keep H2's defaults
+    @Value("${app.database.h2.cache-size:}")
+    private String h2CacheSize;
+    
+    @Value("${app.database.h2.write-delay:}")
+    private String h2WriteDelay;
+    
+    @Value("${app.database.h2.max-compact-time:}")
+    private String h2MaxCompactTime;
+    
+    @Value("${app.database.h2.auto-compact-fill-rate:}")
+    private String h2AutoCompactFillRate;
+    
+    @Value("${app.database.postgresql.url:jdbc:postgresql://localhost:5432/unsplash}")
+    private String postgresqlUrl;
+    
+    @Value("${app.database.postgresql.username:unsplash}")
+    private String postgresqlUsername;
+    
+    @Value("${app.database.postgresql.password:}")
+    private String postgresqlPassword;
+    
     @Bean
     @Primary
-    @ConfigurationProperties(prefix = "spring.datasource")
-    public DataSource dataSource() {
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource dataSource() {
+        if ("postgresql".equalsIgnoreCase(backend)) {
+            return postgresqlDataSource();
+        }
+        if (!"h2".equalsIgnoreCase(backend)) {
+            throw new IllegalStateException("Unknown app.database.backend '" + backend + "', expected h2 or postgresql");
+        }
+        
         String databasePath = storageConfig.getDatabasePath();
         String jdbcUrl;
         
@@ -33,19 +73,20 @@ public class DatabaseConfig {
             
             // Use local database with automatic sync to network drive
             String localDbPath = "./unsplash-data/database/unsplash_photos";
-            jdbcUrl = "jdbc:h2:file:" + localDbPath + ";FILE_LOCK=NO";
+            jdbcUrl = h2Url(localDbPath);
             logger.info("Network drive detected for data path: {}. Using local database with network synchronization.", databasePath);
             logger.info("Local database: {} -> Network sync: {}", localDbPath, databasePath.replace("/database/unsplash_photos", "/database/"));
             logger.info("DatabaseSyncService will automatically sync local database to network drive every minute and on shutdown.");
         } else {
             // Use file-based database for local drives with no file locking
-            jdbcUrl = "jdbc:h2:file:" + databasePath + ";FILE_LOCK=NO";
+            jdbcUrl = h2Url(databasePath);
             logger.info("Local drive detected. Using file-based database: {}", databasePath);
         }
         
         logger.info("Configuring database with URL: {}", jdbcUrl);
         
         return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url(jdbcUrl)
                 .driverClassName("org.h2.Driver")
                 .username("sa")
@@ -53,10 +94,40 @@ public class DatabaseConfig {
                 .build();
     }
     
+    private HikariDataSource postgresqlDataSource() {
+        if (!ClassUtils.isPresent(POSTGRESQL_DRIVER, getClass().getClassLoader())) {
+            throw new IllegalStateException("app.database.backend=postgresql needs the PostgreSQL JDBC driver, build with -Ppostgresql");
+        }
+        logger.info("Using PostgreSQL database: {}", postgresqlUrl);
+        
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(postgresqlUrl)
+                .driverClassName(POSTGRESQL_DRIVER)
+                .username(postgresqlUsername)
+                .password(postgresqlPassword)
+                .build();
+    }
+    
+    private String h2Url(String databasePath) {
+        StringBuilder url = new StringBuilder("jdbc:h2:file:").append(databasePath).append(";FILE_LOCK=NO");
+        appendH2Setting(url, "CACHE_SIZE", h2CacheSize);
+        appendH2Setting(url, "WRITE_DELAY", h2WriteDelay);
+        appendH2Setting(url, "MAX_COMPACT_TIME", h2MaxCompactTime);
+        appendH2Setting(url, "AUTO_COMPACT_FILL_RATE", h2AutoCompactFillRate);
+        return url.toString();
+    }
+    
+    private static void appendH2Setting(StringBuilder url, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            url.append(';').append(name).append('=').append(value.trim());
+        }
+    }
+    
     public void updateDatabasePath(String newPath) {
         // This method can be called when the user changes the output directory
         logger.info("Database path update requested to: {}", newPath);
         // Note: Changing database path at runtime would require application restart
         // or more complex datasource switching logic
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package de.dittnet.unsplashDownloader.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread pools by kind of work. Blocking network and disk I/O (downloads, @Async sync and
+ * migration jobs, Tomcat requests) runs on virtual threads; CPU-bound image work (thumbnails,
+ * EXIF rewriting) gets a small bounded platform pool so it cannot oversubscribe the cores.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String DOWNLOAD_EXECUTOR = "downloadExecutor";
+    public static final String IMAGE_EXECUTOR = "imageExecutor";
+
+    @Value("${app.executors.image.threads:0}")
+    private int imageThreads;
+
+    @Value("${app.executors.image.queue-capacity:500}")
+    private int imageQueueCapacity;
+
+    /**
+     * Executor for @Async methods. Declaring any Executor bean switches off Spring Boot's default
+     * one, so it is declared here from the auto-configured builder, which uses virtual threads
+     * when spring.threads.virtual.enabled is set.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public SimpleAsyncTaskExecutor applicationTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.threadNamePrefix("async-").build();
+    }
+
+    /**
+     * One virtual thread per download job; jobs spend hours waiting on the API and the CDN
+     */
+    @Bean(name = DOWNLOAD_EXECUTOR, destroyMethod = "shutdownNow")
+    public ExecutorService downloadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("download-", 0).factory());
+    }
+
+    @Bean(name = IMAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor imageExecutor() {
+        int threads = imageThreads > 0 ? imageThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(imageQueueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
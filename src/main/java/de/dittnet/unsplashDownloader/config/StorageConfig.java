@@ -1,5 +1,6 @@
 package de.dittnet.unsplashDownloader.config;
 
+import de.dittnet.unsplashDownloader.PhotoLayout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +26,9 @@ public class StorageConfig {
     @Value("${app.base-directory:./unsplash-data}")
     private String fallbackBaseDirectory;
     
+    @Value("${app.photos.layout:flat}")
+    private String photoLayout;
+    
     private String currentBaseDirectory;
     private boolean isUserDefined = false;
     
@@ -69,6 +73,10 @@ public class StorageConfig {
         return getPhotosDirectory();
     }
     
+    public PhotoLayout getPhotoLayout() {
+        return PhotoLayout.fromString(photoLayout);
+    }
+    
     public String getPhotosDirectory() {
         return Paths.get(getBaseDirectory(), "photos").toString();
     }
@@ -77,6 +85,11 @@ public class StorageConfig {
         return Paths.get(getBaseDirectory(), "thumbnails").toString();
     }
     
+    public String getBlobsDirectory() {
+        // Shared by all output paths on its volume, so it doesn't follow the user directory
+        return Paths.get(fallbackBaseDirectory, "blobs").toString();
+    }
+    
     public String getDatabaseDirectory() {
         return Paths.get(getBaseDirectory(), "database").toString();
     }
@@ -113,6 +126,10 @@ public class StorageConfig {
         return Paths.get(getStateDirectory(), "download_state.json").toString();
     }
     
+    public String getCollectionCountersPath() {
+        return Paths.get(getStateDirectory(), "collection_counters.json").toString();
+    }
+    
     public void initializeDirectories() throws IOException {
         createDirectoryIfNotExists(getBaseDirectory());
         createDirectoryIfNotExists(getPhotosDirectory());
@@ -155,6 +172,13 @@ public class StorageConfig {
         return Paths.get(fallbackBaseDirectory, "config").toString();
     }
     
+    /**
+     * Blob stores created on volumes other than the one holding {@link #getBlobsDirectory()}
+     */
+    public String getBlobStoreRegistryPath() {
+        return Paths.get(getSystemConfigDirectory(), "blob_stores.txt").toString();
+    }
+    
     public String getSystemUserSettingsPath() {
         // System-wide user settings (for bootstrap)
         return Paths.get(getSystemConfigDirectory(), "user_settings.json").toString();
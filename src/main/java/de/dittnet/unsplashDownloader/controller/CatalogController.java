@@ -0,0 +1,88 @@
+package de.dittnet.unsplashDownloader.controller;
+
+import de.dittnet.unsplashDownloader.service.CatalogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogController.class);
+
+    @Autowired
+    private CatalogService catalogService;
+
+    /**
+     * Download the whole catalog as gzipped NDJSON
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog() {
+        String fileName = "unsplash-catalog-" + LocalDate.now() + ".ndjson.gz";
+        StreamingResponseBody body = out -> catalogService.exportCatalog(out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(body);
+    }
+
+    /**
+     * Import a catalog archive; photos that already exist are left untouched
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importCatalog(@RequestParam("file") MultipartFile file) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (file.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Catalog file is empty");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            response.putAll(catalogService.importCatalog(in));
+            response.put("success", true);
+            response.put("message", String.format("Imported %s photos, skipped %s already present",
+                response.get("inserted"), response.get("skipped")));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Failed to import catalog", e);
+            response.put("success", false);
+            response.put("message", "Failed to import catalog: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    /**
+     * Recreate missing catalog rows from the metadata sidecar of an output path
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildFromSidecar(@RequestParam(value = "outputPath", required = false) String outputPath) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            response.putAll(catalogService.rebuildFromSidecar(outputPath));
+            response.put("success", true);
+            response.put("message", String.format("Restored %s photos from the metadata sidecar, skipped %s already present",
+                response.get("inserted"), response.get("skipped")));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild catalog from metadata sidecar", e);
+            response.put("success", false);
+            response.put("message", "Failed to rebuild catalog: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+}
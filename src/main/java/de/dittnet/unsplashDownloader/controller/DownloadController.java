@@ -1,10 +1,15 @@
 package de.dittnet.unsplashDownloader.controller;
 
+import de.dittnet.unsplashDownloader.BandwidthLimiter;
+import de.dittnet.unsplashDownloader.RenditionPolicy;
 import de.dittnet.unsplashDownloader.model.DownloadProgress;
 import de.dittnet.unsplashDownloader.model.UserSettings;
+import de.dittnet.unsplashDownloader.service.DownloadDiagnosticsService;
 import de.dittnet.unsplashDownloader.service.DownloadService;
 import de.dittnet.unsplashDownloader.service.DownloadProgressService;
 import de.dittnet.unsplashDownloader.service.UserSettingsService;
+import de.dittnet.unsplashDownloader.source.PhotoSource;
+import de.dittnet.unsplashDownloader.source.PhotoSources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +38,12 @@ public class DownloadController {
     @Autowired
     private UserSettingsService settingsService;
     
+    @Autowired
+    private DownloadDiagnosticsService diagnosticsService;
+    
+    @Autowired
+    private BandwidthLimiter bandwidthLimiter;
+    
     @GetMapping
     public String downloadPage(Model model) {
         model.addAttribute("pageTitle", "Download Manager");
@@ -64,7 +75,13 @@ public class DownloadController {
     @ResponseBody
     public ResponseEntity<Map<String, Object>> startDownload(
             @RequestParam("username") String username,
-            @RequestParam("outputPath") String outputPath) {
+            @RequestParam("outputPath") String outputPath,
+            @RequestParam(required = false) String rendition,
+            @RequestParam(required = false) Integer maxDimension,
+            @RequestParam(required = false) Integer quality,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Boolean prefetchThumbnail,
+            @RequestParam(defaultValue = "false") boolean incremental) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -82,10 +99,22 @@ public class DownloadController {
                 return ResponseEntity.badRequest().body(response);
             }
             
+            // Besides a username this takes likes:, collection:, topic: and search: sources
+            PhotoSource source;
+            RenditionPolicy renditionPolicy;
+            try {
+                source = PhotoSources.parse(username);
+                renditionPolicy = downloadService.resolveRendition(rendition, maxDimension, quality, format, prefetchThumbnail);
+            } catch (IllegalArgumentException e) {
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+            
             // Check if download is already in progress
-            if (downloadService.isDownloadInProgress(username)) {
+            if (downloadService.isDownloadInProgress(source.getKey())) {
                 response.put("success", false);
-                response.put("message", "Download already in progress for user: " + username);
+                response.put("message", "Download already in progress for: " + source.getKey());
                 return ResponseEntity.badRequest().body(response);
             }
             
@@ -104,12 +133,14 @@ public class DownloadController {
             settingsService.updateLastOutputPath(outputPath);
             
             // Start download
-            CompletableFuture<Void> downloadFuture = downloadService.startDownload(username, outputPath);
+            CompletableFuture<Void> downloadFuture = downloadService.startDownload(source, outputPath, renditionPolicy, incremental);
             
             response.put("success", true);
-            response.put("message", "Download started for user: " + username);
-            response.put("username", username);
+            response.put("message", (incremental ? "Sync started for: " : "Download started for: ") + source.getKey());
+            response.put("username", source.getKey());
             response.put("outputPath", outputPath);
+            response.put("rendition", renditionPolicy.toString());
+            response.put("incremental", incremental);
             
             logger.info("Started download for user: {} to path: {}", username, outputPath);
             
@@ -145,6 +176,38 @@ public class DownloadController {
         }
     }
     
+    @PostMapping("/pause")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> pauseDownload(@RequestParam("username") String username) {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (!downloadService.pauseDownload(username)) {
+            response.put("success", false);
+            response.put("message", "No running download for user: " + username);
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        response.put("success", true);
+        response.put("message", "Download paused for user: " + username);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/resume")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> resumeDownload(@RequestParam("username") String username) {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (!downloadService.resumeDownload(username)) {
+            response.put("success", false);
+            response.put("message", "No paused download for user: " + username);
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        response.put("success", true);
+        response.put("message", "Download resumed for user: " + username);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/progress")
     @ResponseBody
     public ResponseEntity<DownloadProgress> getProgress() {
@@ -159,6 +222,21 @@ public class DownloadController {
         return ResponseEntity.ok(history);
     }
     
+    /**
+     * Rolling per-span latency percentiles (ms) and the breakdown of the most recent photos
+     */
+    @GetMapping("/diagnostics")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getDiagnostics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("windowSize", diagnosticsService.getWindowSize());
+        response.put("spans", diagnosticsService.getPercentiles());
+        response.put("recentPhotos", diagnosticsService.getRecentTimings());
+        response.put("bandwidthLimitBytesPerSecond", bandwidthLimiter.getCurrentLimit());
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/browse")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> browseDirectory(@RequestParam("path") String path) {
@@ -1,8 +1,13 @@
 package de.dittnet.unsplashDownloader.controller;
 
 import de.dittnet.unsplashDownloader.ApiKeyManager;
+import de.dittnet.unsplashDownloader.BandwidthLimiter;
+import de.dittnet.unsplashDownloader.UnsplashDownloader;
 import de.dittnet.unsplashDownloader.entity.PhotoEntity;
 import de.dittnet.unsplashDownloader.model.Photo;
+import de.dittnet.unsplashDownloader.model.PhotoCard;
+import de.dittnet.unsplashDownloader.service.CollectionCounterService;
+import de.dittnet.unsplashDownloader.service.PhotoLayoutService;
 import de.dittnet.unsplashDownloader.service.PhotoService;
 import de.dittnet.unsplashDownloader.service.ThumbnailService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +17,7 @@ import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
@@ -34,7 +41,9 @@ import java.util.concurrent.TimeUnit;
 @RequestMapping("/api/photos")
 public class PhotoController {
     private static final Logger logger = LoggerFactory.getLogger(PhotoController.class);
-    private static final String API_BASE_URL = "https://api.unsplash.com";
+    
+    @Value("${app.unsplash.api-base-url:" + UnsplashDownloader.DEFAULT_API_BASE_URL + "}")
+    private String apiBaseUrl;
     
     @Autowired
     private PhotoService photoService;
@@ -42,9 +51,18 @@ public class PhotoController {
     @Autowired
     private ThumbnailService thumbnailService;
     
+    @Autowired
+    private PhotoLayoutService photoLayoutService;
+    
     @Autowired
     private ApiKeyManager apiKeyManager;
     
+    @Autowired
+    private BandwidthLimiter bandwidthLimiter;
+    
+    @Autowired
+    private CollectionCounterService counterService;
+    
     private final OkHttpClient client;
     private final ObjectMapper objectMapper;
     
@@ -67,7 +85,7 @@ public class PhotoController {
     }
     
     @GetMapping
-    public ResponseEntity<Page<PhotoEntity>> getAllPhotos(
+    public ResponseEntity<Page<PhotoCard>> getAllPhotos(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "downloadDate") String sortBy,
@@ -78,19 +96,19 @@ public class PhotoController {
             Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<PhotoEntity> photos = photoService.getAllPhotos(pageable);
+        Page<PhotoCard> photos = photoService.getPhotoCards(pageable);
         
         return ResponseEntity.ok(photos);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<Page<PhotoEntity>> searchPhotos(
+    public ResponseEntity<Page<PhotoCard>> searchPhotos(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("downloadDate").descending());
-        Page<PhotoEntity> photos = photoService.searchPhotos(query, pageable);
+        Page<PhotoCard> photos = photoService.searchPhotoCards(query, pageable);
         
         return ResponseEntity.ok(photos);
     }
@@ -112,7 +130,7 @@ public class PhotoController {
         
         if (photoFile != null && photoFile.exists()) {
             try {
-                byte[] imageBytes = Files.readAllBytes(photoFile.toPath());
+                byte[] imageBytes = readImage(photoFile);
                 return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_JPEG)
                     .body(imageBytes);
@@ -139,7 +157,7 @@ public class PhotoController {
         
         if (thumbnailFile != null && thumbnailFile.exists()) {
             try {
-                byte[] imageBytes = Files.readAllBytes(thumbnailFile.toPath());
+                byte[] imageBytes = readImage(thumbnailFile);
                 return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_JPEG)
                     .body(imageBytes);
@@ -153,8 +171,25 @@ public class PhotoController {
         }
     }
     
+    /**
+     * Gallery images count against the shared bandwidth budget, ahead of bulk downloads
+     */
+    private byte[] readImage(File file) throws IOException {
+        try (InputStream in = bandwidthLimiter.throttle(Files.newInputStream(file.toPath()), BandwidthLimiter.Lane.INTERACTIVE)) {
+            return in.readAllBytes();
+        }
+    }
+    
+    @GetMapping("/{id}/duplicates")
+    public ResponseEntity<List<String>> getNearDuplicates(@PathVariable String id) {
+        if (!photoService.photoExists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(photoService.findNearDuplicatesOf(id));
+    }
+    
     @GetMapping("/photographer/{photographer}")
-    public ResponseEntity<Page<PhotoEntity>> getPhotosByPhotographer(
+    public ResponseEntity<Page<PhotoCard>> getPhotosByPhotographer(
             @PathVariable String photographer,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
@@ -167,42 +202,42 @@ public class PhotoController {
         size = sizeArray[0];
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("downloadDate").descending());
-        Page<PhotoEntity> photos = photoService.getPhotosByPhotographer(photographer, pageable);
+        Page<PhotoCard> photos = photoService.getPhotoCardsByPhotographer(photographer, pageable);
         
         return ResponseEntity.ok(photos);
     }
     
     @GetMapping("/tag/{tag}")
-    public ResponseEntity<Page<PhotoEntity>> getPhotosByTag(
+    public ResponseEntity<Page<PhotoCard>> getPhotosByTag(
             @PathVariable String tag,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("downloadDate").descending());
-        Page<PhotoEntity> photos = photoService.getPhotosByTag(tag, pageable);
+        Page<PhotoCard> photos = photoService.getPhotoCardsByTag(tag, pageable);
         
         return ResponseEntity.ok(photos);
     }
     
     @GetMapping("/color/{color}")
-    public ResponseEntity<Page<PhotoEntity>> getPhotosByColor(
+    public ResponseEntity<Page<PhotoCard>> getPhotosByColor(
             @PathVariable String color,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("downloadDate").descending());
-        Page<PhotoEntity> photos = photoService.getPhotosByColor(color, pageable);
+        Page<PhotoCard> photos = photoService.getPhotoCardsByColor(color, pageable);
         
         return ResponseEntity.ok(photos);
     }
     
     @GetMapping("/popular")
-    public ResponseEntity<Page<PhotoEntity>> getPopularPhotos(
+    public ResponseEntity<Page<PhotoCard>> getPopularPhotos(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<PhotoEntity> photos = photoService.getPhotosByLikes(pageable);
+        Page<PhotoCard> photos = photoService.getPhotoCardsByLikes(pageable);
         
         return ResponseEntity.ok(photos);
     }
@@ -242,6 +277,7 @@ public class PhotoController {
             
             // Update tags in database
             photoService.updatePhotoTags(id, photoData.getTags());
+            counterService.verifyAgainstDatabase("tag refresh of " + id);
             
             int tagCount = photoData.getTags() != null ? photoData.getTags().size() : 0;
             response.put("success", true);
@@ -311,6 +347,10 @@ public class PhotoController {
                 }
             }
             
+            if (successCount > 0) {
+                counterService.verifyAgainstDatabase("refresh of missing tags");
+            }
+            
             response.put("success", true);
             response.put("message", String.format("Processed %d photos. Success: %d, Errors: %d", 
                                                  successCount + errorCount, successCount, errorCount));
@@ -332,12 +372,33 @@ public class PhotoController {
     public ResponseEntity<PhotoStats> getStats() {
         PhotoStats stats = new PhotoStats();
         stats.setTotalPhotos(photoService.getTotalPhotosCount());
-        stats.setTotalPhotographers(photoService.getAllPhotographers().size());
-        stats.setTotalTags(photoService.getAllTags().size());
+        stats.setTotalPhotographers(photoService.getTotalPhotographersCount());
+        stats.setTotalTags(photoService.getTotalTagsCount());
         
         return ResponseEntity.ok(stats);
     }
     
+    @GetMapping("/layout")
+    public ResponseEntity<Map<String, Object>> getLayoutStatus() {
+        return ResponseEntity.ok(photoLayoutService.getMigrationStatus());
+    }
+    
+    @PostMapping("/layout/migrate")
+    public ResponseEntity<Map<String, Object>> migrateLayout() {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (photoLayoutService.isMigrationRunning()) {
+            response.put("success", false);
+            response.put("message", "Layout migration already in progress");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        photoLayoutService.migrateToCurrentLayout();
+        response.put("success", true);
+        response.put("message", "Started migration to " + photoLayoutService.getLayout() + " layout");
+        return ResponseEntity.ok(response);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePhoto(@PathVariable String id) {
         if (photoService.photoExists(id)) {
@@ -380,7 +441,7 @@ public class PhotoController {
     
     private Photo fetchPhotoFromUnsplash(String photoId) {
         try {
-            String url = String.format("%s/photos/%s", API_BASE_URL, photoId);
+            String url = String.format("%s/photos/%s", UnsplashDownloader.normalizeBaseUrl(apiBaseUrl), photoId);
             
             String accessToken = apiKeyManager.getNextAvailableKey();
             if (accessToken == null) {
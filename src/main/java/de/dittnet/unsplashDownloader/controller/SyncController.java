@@ -0,0 +1,91 @@
+package de.dittnet.unsplashDownloader.controller;
+
+import de.dittnet.unsplashDownloader.service.FollowedSyncService;
+import de.dittnet.unsplashDownloader.service.UserSettingsService;
+import de.dittnet.unsplashDownloader.source.PhotoSource;
+import de.dittnet.unsplashDownloader.source.PhotoSources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+    @Autowired
+    private FollowedSyncService followedSyncService;
+
+    @Autowired
+    private UserSettingsService settingsService;
+
+    /**
+     * Followed photographers, their watermarks and the state of the scheduled sync
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(followedSyncService.getStatus());
+    }
+
+    @PostMapping("/follow")
+    public ResponseEntity<Map<String, Object>> follow(@RequestParam("username") String username) {
+        Map<String, Object> response = new HashMap<>();
+
+        // Collections, topics, searches and likes can be followed the same way as photographers
+        PhotoSource source;
+        try {
+            source = PhotoSources.parse(username);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        boolean added = settingsService.followUsername(source.getKey());
+        response.put("success", true);
+        response.put("message", added ? "Now following " + source.getKey() : "Already following " + source.getKey());
+        response.put("followed", settingsService.getFollowedUsernames());
+        logger.info("Following: {}", source.getKey());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/unfollow")
+    public ResponseEntity<Map<String, Object>> unfollow(@RequestParam("username") String username) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!settingsService.unfollowUsername(username)) {
+            response.put("success", false);
+            response.put("message", "Not following " + username);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        response.put("success", true);
+        response.put("message", "No longer following " + username.trim());
+        response.put("followed", settingsService.getFollowedUsernames());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Syncs all followed photographers now instead of waiting for the next scheduled run
+     */
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> runNow() {
+        Map<String, Object> response = new HashMap<>();
+
+        if (followedSyncService.isRunning()) {
+            response.put("success", false);
+            response.put("message", "Sync of followed photographers already in progress");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        followedSyncService.syncFollowedAsync();
+        response.put("success", true);
+        response.put("message", "Started sync of " + settingsService.getFollowedUsernames().size() + " followed photographers");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,6 +2,7 @@ package de.dittnet.unsplashDownloader.controller;
 
 import de.dittnet.unsplashDownloader.entity.PhotoEntity;
 import de.dittnet.unsplashDownloader.model.CollectionStats;
+import de.dittnet.unsplashDownloader.model.PhotoCard;
 import de.dittnet.unsplashDownloader.model.TagStats;
 import de.dittnet.unsplashDownloader.model.UserSettings;
 import de.dittnet.unsplashDownloader.service.PhotoService;
@@ -51,22 +52,22 @@ public class WebController {
                        @RequestParam(name = "color", required = false) String color) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("downloadDate").descending());
-        Page<PhotoEntity> photos;
+        Page<PhotoCard> photos;
         
         if (search != null && !search.trim().isEmpty()) {
-            photos = photoService.searchPhotos(search, pageable);
+            photos = photoService.searchPhotoCards(search, pageable);
             model.addAttribute("searchQuery", search);
         } else if (photographer != null && !photographer.trim().isEmpty()) {
-            photos = photoService.getPhotosByPhotographer(photographer, pageable);
+            photos = photoService.getPhotoCardsByPhotographer(photographer, pageable);
             model.addAttribute("selectedPhotographer", photographer);
         } else if (tag != null && !tag.trim().isEmpty()) {
-            photos = photoService.getPhotosByTag(tag, pageable);
+            photos = photoService.getPhotoCardsByTag(tag, pageable);
             model.addAttribute("selectedTag", tag);
         } else if (color != null && !color.trim().isEmpty()) {
-            photos = photoService.getPhotosByColor(color, pageable);
+            photos = photoService.getPhotoCardsByColor(color, pageable);
             model.addAttribute("selectedColor", color);
         } else {
-            photos = photoService.getAllPhotos(pageable);
+            photos = photoService.getPhotoCards(pageable);
         }
         
         model.addAttribute("photos", photos);
@@ -116,7 +117,7 @@ public class WebController {
         model.addAttribute("totalPhotos", photoService.getTotalPhotosCount());
         
         // Limit for performance - full lists can be very large
-        List<String> photographers = photoService.getAllPhotographers().stream()
+        List<String> photographers = photoService.getPhotographerNames().stream()
             .limit(50) // Top 50 photographers for stats page
             .collect(Collectors.toList());
         
@@ -177,12 +178,8 @@ public class WebController {
         try {
             // Fast operations only
             stats.setTotalPhotos((int) photoService.getTotalPhotosCount());
-            stats.setTotalPhotographers(photoService.getAllPhotographers().stream()
-                .limit(50) // Use the same limited list
-                .collect(Collectors.toList()).size());
-            stats.setTotalTags(photoService.getAllTags().stream()
-                .limit(100) // Use the same limited list
-                .collect(Collectors.toList()).size());
+            stats.setTotalPhotographers(photoService.getTotalPhotographersCount());
+            stats.setTotalTags(photoService.getTotalTagsCount());
             
             // Skip expensive storage calculation - show placeholder
             stats.setTotalStorageBytes(0);
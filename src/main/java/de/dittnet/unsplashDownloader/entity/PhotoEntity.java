@@ -1,6 +1,7 @@
 package de.dittnet.unsplashDownloader.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.Set;
 
@@ -9,7 +10,9 @@ import java.util.Set;
     @Index(name = "idx_download_date", columnList = "download_date"),
     @Index(name = "idx_photographer_name", columnList = "photographer_name"),
     @Index(name = "idx_likes", columnList = "likes"),
-    @Index(name = "idx_color", columnList = "color")
+    @Index(name = "idx_color", columnList = "color"),
+    @Index(name = "idx_color_bucket", columnList = "color_bucket"),
+    @Index(name = "idx_content_hash", columnList = "content_hash")
 })
 public class PhotoEntity {
     @Id
@@ -44,10 +47,33 @@ public class PhotoEntity {
     @Column(name = "color")
     private String color;
     
+    // Quantized CIE Lab coordinates of the dominant color, used for similar-color search
+    @Column(name = "color_l")
+    private Integer colorL;
+    
+    @Column(name = "color_a")
+    private Integer colorA;
+    
+    @Column(name = "color_b")
+    private Integer colorB;
+    
+    // Lab cube the color falls into (see ColorIndexService), the indexed key of color searches
+    @Column(name = "color_bucket")
+    private Integer colorBucket;
+    
     @Column(name = "likes")
     private Integer likes;
     
+    // 64-bit dHash of the image, used to detect near-duplicates across accounts
+    @Column(name = "perceptual_hash")
+    private Long perceptualHash;
+    
+    // SHA-256 of the stored file, the key of its blob in the content-addressed store
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     @OneToMany(mappedBy = "photo", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50) // Initialize tags for up to 50 photos per query when iterating lists
     private Set<PhotoTagEntity> tags;
     
     // Default constructor
@@ -142,6 +168,38 @@ public class PhotoEntity {
         this.color = color;
     }
     
+    public Integer getColorL() {
+        return colorL;
+    }
+    
+    public void setColorL(Integer colorL) {
+        this.colorL = colorL;
+    }
+    
+    public Integer getColorA() {
+        return colorA;
+    }
+    
+    public void setColorA(Integer colorA) {
+        this.colorA = colorA;
+    }
+    
+    public Integer getColorB() {
+        return colorB;
+    }
+    
+    public void setColorB(Integer colorB) {
+        this.colorB = colorB;
+    }
+    
+    public Integer getColorBucket() {
+        return colorBucket;
+    }
+    
+    public void setColorBucket(Integer colorBucket) {
+        this.colorBucket = colorBucket;
+    }
+    
     public Integer getLikes() {
         return likes;
     }
@@ -150,6 +208,22 @@ public class PhotoEntity {
         this.likes = likes;
     }
     
+    public Long getPerceptualHash() {
+        return perceptualHash;
+    }
+    
+    public void setPerceptualHash(Long perceptualHash) {
+        this.perceptualHash = perceptualHash;
+    }
+    
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
     public Set<PhotoTagEntity> getTags() {
         return tags;
     }
@@ -0,0 +1,174 @@
+package de.dittnet.unsplashDownloader.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One photo of the catalog as written to and read from an NDJSON export
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogEntry {
+    private String id;
+    private String title;
+    private String description;
+    private String filePath;
+    private String photographerName;
+    private String photographerUsername;
+    private LocalDateTime downloadDate;
+    private String unsplashUrl;
+    private Integer imageWidth;
+    private Integer imageHeight;
+    private String color;
+    private Integer likes;
+    private Long perceptualHash;
+    private String contentHash;
+    private List<Photo.Tag> tags;
+    
+    /**
+     * Entry for a photo that was just downloaded, with the same fields a single save would store
+     */
+    public static CatalogEntry fromDownload(Photo photo, String filePath, Long perceptualHash, String contentHash) {
+        CatalogEntry entry = new CatalogEntry();
+        entry.setId(photo.getId());
+        entry.setTitle(photo.getTitle());
+        entry.setDescription(photo.getDescription());
+        entry.setFilePath(filePath);
+        entry.setDownloadDate(LocalDateTime.now());
+        if (photo.getUser() != null) {
+            entry.setPhotographerName(photo.getUser().getName());
+            entry.setPhotographerUsername(photo.getUser().getUsername());
+        }
+        if (photo.getUrls() != null) {
+            entry.setUnsplashUrl(photo.getUrls().getFull());
+        }
+        entry.setImageWidth(photo.getWidth());
+        entry.setImageHeight(photo.getHeight());
+        entry.setColor(photo.getColor());
+        entry.setLikes(photo.getLikes());
+        entry.setPerceptualHash(perceptualHash);
+        entry.setContentHash(contentHash);
+        entry.setTags(photo.getTags());
+        return entry;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    public String getPhotographerName() {
+        return photographerName;
+    }
+    
+    public void setPhotographerName(String photographerName) {
+        this.photographerName = photographerName;
+    }
+    
+    public String getPhotographerUsername() {
+        return photographerUsername;
+    }
+    
+    public void setPhotographerUsername(String photographerUsername) {
+        this.photographerUsername = photographerUsername;
+    }
+    
+    public LocalDateTime getDownloadDate() {
+        return downloadDate;
+    }
+    
+    public void setDownloadDate(LocalDateTime downloadDate) {
+        this.downloadDate = downloadDate;
+    }
+    
+    public String getUnsplashUrl() {
+        return unsplashUrl;
+    }
+    
+    public void setUnsplashUrl(String unsplashUrl) {
+        this.unsplashUrl = unsplashUrl;
+    }
+    
+    public Integer getImageWidth() {
+        return imageWidth;
+    }
+    
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+    
+    public Integer getImageHeight() {
+        return imageHeight;
+    }
+    
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+    
+    public String getColor() {
+        return color;
+    }
+    
+    public void setColor(String color) {
+        this.color = color;
+    }
+    
+    public Integer getLikes() {
+        return likes;
+    }
+    
+    public void setLikes(Integer likes) {
+        this.likes = likes;
+    }
+    
+    public Long getPerceptualHash() {
+        return perceptualHash;
+    }
+    
+    public void setPerceptualHash(Long perceptualHash) {
+        this.perceptualHash = perceptualHash;
+    }
+    
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    public List<Photo.Tag> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<Photo.Tag> tags) {
+        this.tags = tags;
+    }
+}
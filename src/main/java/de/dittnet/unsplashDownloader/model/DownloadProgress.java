@@ -2,6 +2,7 @@ package de.dittnet.unsplashDownloader.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 public class DownloadProgress {
     private String username;
@@ -18,6 +19,10 @@ public class DownloadProgress {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime endTime;
     
+    // Span breakdown of the last finished photo and rolling percentiles over recent photos
+    private PhotoTiming lastPhotoTiming;
+    private Map<String, SpanPercentiles> spanPercentiles;
+    
     // Constructors
     public DownloadProgress() {}
     
@@ -104,6 +109,22 @@ public class DownloadProgress {
         this.endTime = endTime;
     }
     
+    public PhotoTiming getLastPhotoTiming() {
+        return lastPhotoTiming;
+    }
+    
+    public void setLastPhotoTiming(PhotoTiming lastPhotoTiming) {
+        this.lastPhotoTiming = lastPhotoTiming;
+    }
+    
+    public Map<String, SpanPercentiles> getSpanPercentiles() {
+        return spanPercentiles;
+    }
+    
+    public void setSpanPercentiles(Map<String, SpanPercentiles> spanPercentiles) {
+        this.spanPercentiles = spanPercentiles;
+    }
+    
     // Helper methods
     public double getProgressPercentage() {
         if (totalPhotos == 0) return 0.0;
@@ -111,7 +132,7 @@ public class DownloadProgress {
     }
     
     public boolean isActive() {
-        return status == DownloadStatus.STARTING || status == DownloadStatus.DOWNLOADING;
+        return status == DownloadStatus.STARTING || status == DownloadStatus.DOWNLOADING || status == DownloadStatus.PAUSED;
     }
     
     public boolean isCompleted() {
@@ -1,21 +1,24 @@
 package de.dittnet.unsplashDownloader.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.Set;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class DownloadState {
     private String username;
     private int totalPhotos;
-    private Set<String> downloadedPhotos;
+    // Saved separately in binary form; older state files still carry it as a JSON array
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private PhotoIdSet downloadedPhotos;
     private LocalDateTime lastUpdate;
     private int dailyRequestCount;
     private LocalDateTime requestCountDate;
 
     public DownloadState() {
-        this.downloadedPhotos = new HashSet<>();
+        this.downloadedPhotos = new PhotoIdSet();
         this.lastUpdate = LocalDateTime.now();
         this.requestCountDate = LocalDateTime.now();
     }
@@ -36,11 +39,17 @@ public class DownloadState {
         this.totalPhotos = totalPhotos;
     }
 
-    public Set<String> getDownloadedPhotos() {
+    public PhotoIdSet getDownloadedPhotos() {
         return downloadedPhotos;
     }
 
     public void setDownloadedPhotos(Set<String> downloadedPhotos) {
+        this.downloadedPhotos = new PhotoIdSet();
+        this.downloadedPhotos.addAll(downloadedPhotos);
+    }
+
+    @JsonIgnore
+    public void setDownloadedPhotoIds(PhotoIdSet downloadedPhotos) {
         this.downloadedPhotos = downloadedPhotos;
     }
 
@@ -4,6 +4,7 @@ public enum DownloadStatus {
     PENDING("Pending"),
     STARTING("Starting"),
     DOWNLOADING("Downloading"),
+    PAUSED("Paused"),
     COMPLETED("Completed"),
     FAILED("Failed"),
     CANCELLED("Cancelled");
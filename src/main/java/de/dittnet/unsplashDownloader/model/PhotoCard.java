@@ -0,0 +1,174 @@
+package de.dittnet.unsplashDownloader.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lean read model for gallery and list views. Built directly by a JPQL constructor
+ * expression, with the tags of a whole page filled in by a single batched query.
+ */
+public class PhotoCard {
+    private String id;
+    private String title;
+    private String description;
+    private String photographerName;
+    private String photographerUsername;
+    private Integer imageWidth;
+    private Integer imageHeight;
+    private String color;
+    private Integer likes;
+    private LocalDateTime downloadDate;
+    private List<Tag> tags;
+    
+    public PhotoCard() {
+        this.tags = new ArrayList<>();
+    }
+    
+    public PhotoCard(String id, String title, String description, String photographerName,
+                     String photographerUsername, Integer imageWidth, Integer imageHeight,
+                     String color, Integer likes, LocalDateTime downloadDate) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.photographerName = photographerName;
+        this.photographerUsername = photographerUsername;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.color = color;
+        this.likes = likes;
+        this.downloadDate = downloadDate;
+        this.tags = new ArrayList<>();
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getPhotographerName() {
+        return photographerName;
+    }
+    
+    public void setPhotographerName(String photographerName) {
+        this.photographerName = photographerName;
+    }
+    
+    public String getPhotographerUsername() {
+        return photographerUsername;
+    }
+    
+    public void setPhotographerUsername(String photographerUsername) {
+        this.photographerUsername = photographerUsername;
+    }
+    
+    public Integer getImageWidth() {
+        return imageWidth;
+    }
+    
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+    
+    public Integer getImageHeight() {
+        return imageHeight;
+    }
+    
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+    
+    public String getColor() {
+        return color;
+    }
+    
+    public void setColor(String color) {
+        this.color = color;
+    }
+    
+    public Integer getLikes() {
+        return likes;
+    }
+    
+    public void setLikes(Integer likes) {
+        this.likes = likes;
+    }
+    
+    public LocalDateTime getDownloadDate() {
+        return downloadDate;
+    }
+    
+    public void setDownloadDate(LocalDateTime downloadDate) {
+        this.downloadDate = downloadDate;
+    }
+    
+    public List<Tag> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<Tag> tags) {
+        this.tags = tags;
+    }
+    
+    /**
+     * Same JSON shape as a serialized PhotoTagEntity (id, tagTitle, tagType), without the
+     * back reference to the photo
+     */
+    public static class Tag {
+        private Long id;
+        private String tagTitle;
+        private String tagType;
+        
+        public Tag() {}
+        
+        public Tag(Long id, String tagTitle, String tagType) {
+            this.id = id;
+            this.tagTitle = tagTitle;
+            this.tagType = tagType;
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public void setId(Long id) {
+            this.id = id;
+        }
+        
+        public String getTagTitle() {
+            return tagTitle;
+        }
+        
+        public void setTagTitle(String tagTitle) {
+            this.tagTitle = tagTitle;
+        }
+        
+        public String getTagType() {
+            return tagType;
+        }
+        
+        public void setTagType(String tagType) {
+            this.tagType = tagType;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package de.dittnet.unsplashDownloader.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Set of photo IDs for accounts with millions of photos. Unsplash IDs are 11 base64url
+ * characters (66 bits): the first ten are packed into a long and the last one into a byte,
+ * kept in an open-addressing table at about 13 bytes per ID instead of the 100+ a
+ * HashSet&lt;String&gt; entry costs. IDs of any other shape go to a plain fallback set.
+ * <p>
+ * The binary file is a header followed by one record per ID. Additions since the last save are
+ * appended, so saving after every photo stays cheap, and loading maps the file instead of
+ * parsing JSON. Removal is not supported; {@link #clear()} starts over.
+ */
+public class PhotoIdSet extends AbstractSet<String> {
+    private static final int MAGIC = 0x50494453; // "PIDS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int PACKED_RECORD_BYTES = 9;
+    private static final byte OTHER_RECORD = 0;
+    private static final int ID_LENGTH = 11;
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    private static final int MIN_CAPACITY = 64;
+
+    // tails[i] == 0 marks an empty slot, otherwise it is 1 + the code of the last character
+    private long[] keys;
+    private byte[] tails;
+    private int packedSize;
+    private final Set<String> others = new HashSet<>();
+
+    // Saved IDs are appended to; a set that was not loaded from the file replaces it
+    private final List<String> unsaved = new ArrayList<>();
+    private boolean rewrite = true;
+
+    public PhotoIdSet() {
+        this(MIN_CAPACITY);
+    }
+
+    private PhotoIdSet(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    @Override
+    public int size() {
+        return packedSize + others.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String id)) {
+            return false;
+        }
+        long key = packKey(id);
+        if (key < 0) {
+            return others.contains(id);
+        }
+        return indexOf(key, packTail(id)) >= 0;
+    }
+
+    @Override
+    public boolean add(String id) {
+        if (!insert(id)) {
+            return false;
+        }
+        unsaved.add(id);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        allocate(MIN_CAPACITY);
+        packedSize = 0;
+        others.clear();
+        unsaved.clear();
+        rewrite = true;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> rest = others.iterator();
+        return new Iterator<>() {
+            private int slot = nextSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < tails.length || rest.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (slot < tails.length) {
+                    String id = unpack(keys[slot], tails[slot]);
+                    slot = nextSlot(slot + 1);
+                    return id;
+                }
+                if (!rest.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return rest.next();
+            }
+        };
+    }
+
+    /**
+     * Reads a set saved with {@link #save(File)}. A record torn by a crash mid-append is
+     * dropped and the file rewritten on the next save.
+     */
+    public static PhotoIdSet load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Photo ID file " + file + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Photo ID file " + file + " has an unknown format");
+            }
+
+            PhotoIdSet set = new PhotoIdSet((int) Math.min(Integer.MAX_VALUE / 2,
+                (length - HEADER_BYTES) / PACKED_RECORD_BYTES));
+            boolean torn = false;
+            while (buffer.hasRemaining()) {
+                byte tail = buffer.get();
+                if (tail > 0 && tail <= ALPHABET.length() && buffer.remaining() >= Long.BYTES) {
+                    set.insertPacked(buffer.getLong(), tail);
+                    continue;
+                }
+                int idLength = tail == OTHER_RECORD && buffer.remaining() >= Short.BYTES
+                    ? buffer.getShort() & 0xFFFF : 0;
+                // Zero length also covers zero-filled space left by an interrupted append
+                if (idLength == 0 || buffer.remaining() < idLength) {
+                    torn = true;
+                    break;
+                }
+                byte[] bytes = new byte[idLength];
+                buffer.get(bytes);
+                set.others.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            set.rewrite = torn;
+            return set;
+        }
+    }
+
+    /**
+     * Appends the IDs added since the last save, or writes the whole set to a temporary file
+     * and moves it into place when the file does not hold this set yet.
+     */
+    public void save(File file) throws IOException {
+        if (rewrite || !file.exists()) {
+            Path target = file.toPath();
+            Path temp = target.resolveSibling(file.getName() + ".tmp");
+            try (DataOutputStream out = open(temp.toFile(), false)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                for (String id : this) {
+                    writeRecord(out, id);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } else if (!unsaved.isEmpty()) {
+            try (DataOutputStream out = open(file, true)) {
+                for (String id : unsaved) {
+                    writeRecord(out, id);
+                }
+            }
+        }
+        unsaved.clear();
+        rewrite = false;
+    }
+
+    private static DataOutputStream open(File file, boolean append) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, append), 64 * 1024));
+    }
+
+    private static void writeRecord(DataOutputStream out, String id) throws IOException {
+        long key = packKey(id);
+        if (key >= 0) {
+            out.writeByte(packTail(id));
+            out.writeLong(key);
+        } else {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(OTHER_RECORD);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private boolean insert(String id) {
+        long key = packKey(id);
+        if (key < 0) {
+            return others.add(id);
+        }
+        return insertPacked(key, packTail(id));
+    }
+
+    private boolean insertPacked(long key, byte tail) {
+        if (indexOf(key, tail) >= 0) {
+            return false;
+        }
+        if ((packedSize + 1) * 10L > tails.length * 7L) {
+            grow();
+        }
+        place(key, tail);
+        packedSize++;
+        return true;
+    }
+
+    private int indexOf(long key, byte tail) {
+        int mask = tails.length - 1;
+        for (int slot = slot(key, tail, mask); tails[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && tails[slot] == tail) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void place(long key, byte tail) {
+        int mask = tails.length - 1;
+        int slot = slot(key, tail, mask);
+        while (tails[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        tails[slot] = tail;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        byte[] oldTails = tails;
+        allocate(oldTails.length * 2);
+        for (int i = 0; i < oldTails.length; i++) {
+            if (oldTails[i] != 0) {
+                place(oldKeys[i], oldTails[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        tails = new byte[capacity];
+    }
+
+    private int nextSlot(int from) {
+        int slot = from;
+        while (slot < tails.length && tails[slot] == 0) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private static int tableSizeFor(int expected) {
+        // Keeps the load factor at or below 0.7
+        long needed = Math.max(MIN_CAPACITY, (long) expected * 10 / 7 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int slot(long key, byte tail, int mask) {
+        long hash = key ^ (tail * 0x9E3779B97F4A7C15L);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    /**
+     * The first ten characters as a 60-bit value, or -1 when the ID is not 11 base64url characters
+     */
+    private static long packKey(String id) {
+        if (id.length() != ID_LENGTH) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            int code = code(id.charAt(i));
+            if (code < 0) {
+                return -1;
+            }
+            if (i < ID_LENGTH - 1) {
+                key = (key << 6) | code;
+            }
+        }
+        return key;
+    }
+
+    private static byte packTail(String id) {
+        return (byte) (code(id.charAt(ID_LENGTH - 1)) + 1);
+    }
+
+    private static String unpack(long key, byte tail) {
+        char[] chars = new char[ID_LENGTH];
+        chars[ID_LENGTH - 1] = ALPHABET.charAt(tail - 1);
+        for (int i = ID_LENGTH - 2; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (key & 63));
+            key >>>= 6;
+        }
+        return new String(chars);
+    }
+
+    private static int code(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        if (c == '-') {
+            return 62;
+        }
+        if (c == '_') {
+            return 63;
+        }
+        return -1;
+    }
+}
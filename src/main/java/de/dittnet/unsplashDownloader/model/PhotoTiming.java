@@ -0,0 +1,56 @@
+package de.dittnet.unsplashDownloader.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Where the time for a single photo went, in milliseconds per span
+ */
+public class PhotoTiming {
+    // Share of the listing request: page duration divided by the photos on that page
+    public static final String PAGE = "page";
+    public static final String DETAILS = "details";
+    // Thumbnail fetch for the perceptual hash plus the near-duplicate lookup
+    public static final String HASH = "hash";
+    public static final String TRANSFER = "transfer";
+    public static final String METADATA = "metadata";
+    // Blob store put/link and the sidecar append
+    public static final String STORE = "store";
+    public static final String DATABASE = "database";
+    public static final String STATE = "state";
+    public static final String TOTAL = "total";
+    
+    private String photoId;
+    private long bytes;
+    private final Map<String, Double> spans = new LinkedHashMap<>();
+    
+    public PhotoTiming() {}
+    
+    public PhotoTiming(String photoId) {
+        this.photoId = photoId;
+    }
+    
+    public void addSpan(String span, long nanos) {
+        spans.merge(span, nanos / 1_000_000.0, Double::sum);
+    }
+    
+    public String getPhotoId() {
+        return photoId;
+    }
+    
+    public void setPhotoId(String photoId) {
+        this.photoId = photoId;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+    
+    public Map<String, Double> getSpans() {
+        return spans;
+    }
+}
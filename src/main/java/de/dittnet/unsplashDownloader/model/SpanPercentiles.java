@@ -0,0 +1,62 @@
+package de.dittnet.unsplashDownloader.model;
+
+/**
+ * Rolling percentiles of one span over the most recent photos, in milliseconds
+ */
+public class SpanPercentiles {
+    private int samples;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double max;
+    
+    public SpanPercentiles() {}
+    
+    public SpanPercentiles(int samples, double p50, double p90, double p99, double max) {
+        this.samples = samples;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+    
+    public int getSamples() {
+        return samples;
+    }
+    
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+    
+    public double getP50() {
+        return p50;
+    }
+    
+    public void setP50(double p50) {
+        this.p50 = p50;
+    }
+    
+    public double getP90() {
+        return p90;
+    }
+    
+    public void setP90(double p90) {
+        this.p90 = p90;
+    }
+    
+    public double getP99() {
+        return p99;
+    }
+    
+    public void setP99(double p99) {
+        this.p99 = p99;
+    }
+    
+    public double getMax() {
+        return max;
+    }
+    
+    public void setMax(double max) {
+        this.max = max;
+    }
+}
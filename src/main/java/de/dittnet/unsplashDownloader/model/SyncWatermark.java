@@ -0,0 +1,73 @@
+package de.dittnet.unsplashDownloader.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How far a photographer has been synced: the IDs of their newest photos at the last complete
+ * run. An incremental sync walks the listing newest-first and stops at the first of these.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SyncWatermark {
+    private String username;
+    // Newest first; several IDs so that deleting the newest photo does not force a full walk
+    private List<String> latestPhotoIds;
+    private LocalDateTime lastSync;
+    private int lastSyncNewPhotos;
+    private int lastSyncApiCalls;
+
+    public SyncWatermark() {
+        this.latestPhotoIds = new ArrayList<>();
+    }
+
+    public SyncWatermark(String username) {
+        this();
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public List<String> getLatestPhotoIds() {
+        if (latestPhotoIds == null) {
+            latestPhotoIds = new ArrayList<>();
+        }
+        return latestPhotoIds;
+    }
+
+    public void setLatestPhotoIds(List<String> latestPhotoIds) {
+        this.latestPhotoIds = latestPhotoIds;
+    }
+
+    public LocalDateTime getLastSync() {
+        return lastSync;
+    }
+
+    public void setLastSync(LocalDateTime lastSync) {
+        this.lastSync = lastSync;
+    }
+
+    public int getLastSyncNewPhotos() {
+        return lastSyncNewPhotos;
+    }
+
+    public void setLastSyncNewPhotos(int lastSyncNewPhotos) {
+        this.lastSyncNewPhotos = lastSyncNewPhotos;
+    }
+
+    public int getLastSyncApiCalls() {
+        return lastSyncApiCalls;
+    }
+
+    public void setLastSyncApiCalls(int lastSyncApiCalls) {
+        this.lastSyncApiCalls = lastSyncApiCalls;
+    }
+}
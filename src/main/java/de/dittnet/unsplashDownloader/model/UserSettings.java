@@ -11,6 +11,7 @@ public class UserSettings {
     private String lastOutputPath;
     private List<String> recentUsernames;
     private List<String> recentOutputPaths;
+    private List<String> followedUsernames;
     private int defaultPageSize;
     private boolean autoSaveSettings;
     private boolean showDetailedProgress;
@@ -20,6 +21,7 @@ public class UserSettings {
     public UserSettings() {
         this.recentUsernames = new ArrayList<>();
         this.recentOutputPaths = new ArrayList<>();
+        this.followedUsernames = new ArrayList<>();
         this.defaultPageSize = 24;
         this.autoSaveSettings = true;
         this.showDetailedProgress = true;
@@ -68,6 +70,17 @@ public class UserSettings {
         this.recentOutputPaths = recentOutputPaths;
     }
     
+    public List<String> getFollowedUsernames() {
+        if (followedUsernames == null) {
+            followedUsernames = new ArrayList<>();
+        }
+        return followedUsernames;
+    }
+    
+    public void setFollowedUsernames(List<String> followedUsernames) {
+        this.followedUsernames = followedUsernames;
+    }
+    
     public int getDefaultPageSize() {
         return defaultPageSize;
     }
@@ -1,20 +1,34 @@
 package de.dittnet.unsplashDownloader.repository;
 
 import de.dittnet.unsplashDownloader.entity.PhotoEntity;
+import de.dittnet.unsplashDownloader.model.PhotoCard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PhotoRepository extends JpaRepository<PhotoEntity, String> {
     
+    // Constructor expression shared by the PhotoCard list queries below
+    String PHOTO_CARD_SELECT = "SELECT new de.dittnet.unsplashDownloader.model.PhotoCard(" +
+           "p.id, p.title, p.description, p.photographerName, p.photographerUsername, " +
+           "p.imageWidth, p.imageHeight, p.color, p.likes, p.downloadDate) ";
+    
     // Find photos by photographer
     Page<PhotoEntity> findByPhotographerNameContainingIgnoreCase(String photographerName, Pageable pageable);
     
@@ -44,6 +58,17 @@ public interface PhotoRepository extends JpaRepository<PhotoEntity, String> {
     @Query("SELECT DISTINCT p.photographerName FROM PhotoEntity p WHERE p.photographerName IS NOT NULL ORDER BY p.photographerName")
     List<String> findAllPhotographers();
     
+    // Count photos per photographer (used to seed the collection counters)
+    @Query("SELECT p.photographerName, COUNT(p) FROM PhotoEntity p WHERE p.photographerName IS NOT NULL GROUP BY p.photographerName")
+    List<Object[]> countPhotosByPhotographer();
+    
+    // Tag table fingerprint as a single row of [row count, highest id], checked with the counter snapshot
+    @Query("SELECT COUNT(t), MAX(t.id) FROM PhotoTagEntity t")
+    List<Object[]> findTagFingerprint();
+    
+    @Query("SELECT MAX(p.downloadDate) FROM PhotoEntity p")
+    LocalDateTime findLatestDownloadDate();
+    
     // Get all unique tags
     @Query("SELECT DISTINCT t.tagTitle FROM PhotoTagEntity t ORDER BY t.tagTitle")
     List<String> findAllTags();
@@ -69,4 +94,107 @@ public interface PhotoRepository extends JpaRepository<PhotoEntity, String> {
     // Get photos without any tags
     @Query("SELECT p FROM PhotoEntity p WHERE p.tags IS EMPTY OR SIZE(p.tags) = 0")
     List<PhotoEntity> findPhotosWithoutTags();
-}
\ No newline at end of file
+    
+    // PhotoCard projections for list views (tags are loaded separately per page)
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p")
+    Page<PhotoCard> findAllCards(Pageable pageable);
+    
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p WHERE " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.photographerName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "EXISTS (SELECT t FROM PhotoTagEntity t WHERE t.photo = p AND LOWER(t.tagTitle) LIKE LOWER(CONCAT('%', :search, '%')))",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p WHERE " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.photographerName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "EXISTS (SELECT t FROM PhotoTagEntity t WHERE t.photo = p AND LOWER(t.tagTitle) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<PhotoCard> searchCards(@Param("search") String search, Pageable pageable);
+    
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p WHERE LOWER(p.photographerName) LIKE LOWER(CONCAT('%', :photographer, '%'))",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p WHERE LOWER(p.photographerName) LIKE LOWER(CONCAT('%', :photographer, '%'))")
+    Page<PhotoCard> findCardsByPhotographer(@Param("photographer") String photographer, Pageable pageable);
+    
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p WHERE " +
+           "EXISTS (SELECT t FROM PhotoTagEntity t WHERE t.photo = p AND LOWER(t.tagTitle) LIKE LOWER(CONCAT('%', :tag, '%')))",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p WHERE " +
+           "EXISTS (SELECT t FROM PhotoTagEntity t WHERE t.photo = p AND LOWER(t.tagTitle) LIKE LOWER(CONCAT('%', :tag, '%')))")
+    Page<PhotoCard> findCardsByTag(@Param("tag") String tag, Pageable pageable);
+    
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p WHERE LOWER(p.color) LIKE LOWER(CONCAT('%', :color, '%'))",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p WHERE LOWER(p.color) LIKE LOWER(CONCAT('%', :color, '%'))")
+    Page<PhotoCard> findCardsByColor(@Param("color") String color, Pageable pageable);
+    
+    // Nearest-color search: equality lookups of the neighbouring color buckets, refined to the
+    // tolerance cube and ordered closest first
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p WHERE p.colorBucket IN :buckets AND " +
+           "p.colorL BETWEEN :l - :tolerance AND :l + :tolerance AND " +
+           "p.colorA BETWEEN :a - :tolerance AND :a + :tolerance AND " +
+           "p.colorB BETWEEN :b - :tolerance AND :b + :tolerance " +
+           "ORDER BY ((p.colorL - :l) * (p.colorL - :l) + (p.colorA - :a) * (p.colorA - :a) + (p.colorB - :b) * (p.colorB - :b))",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p WHERE p.colorBucket IN :buckets AND " +
+           "p.colorL BETWEEN :l - :tolerance AND :l + :tolerance AND " +
+           "p.colorA BETWEEN :a - :tolerance AND :a + :tolerance AND " +
+           "p.colorB BETWEEN :b - :tolerance AND :b + :tolerance")
+    Page<PhotoCard> findCardsBySimilarColor(@Param("buckets") Collection<Integer> buckets,
+                                            @Param("l") int l, @Param("a") int a, @Param("b") int b,
+                                            @Param("tolerance") int tolerance, Pageable pageable);
+    
+    // All stored perceptual hashes as rows of [photoId, hash], used to build the duplicate index
+    @Query("SELECT p.id, p.perceptualHash FROM PhotoEntity p WHERE p.perceptualHash IS NOT NULL")
+    List<Object[]> findPerceptualHashes();
+    
+    // Distinct colors of photos that have not been added to the Lab color index yet
+    @Query("SELECT DISTINCT p.color FROM PhotoEntity p WHERE p.color IS NOT NULL AND p.colorBucket IS NULL")
+    List<String> findUnindexedColors();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE PhotoEntity p SET p.colorL = :l, p.colorA = :a, p.colorB = :b, p.colorBucket = :bucket " +
+           "WHERE p.color = :color AND p.colorBucket IS NULL")
+    int updateColorIndex(@Param("color") String color, @Param("l") int l, @Param("a") int a, @Param("b") int b,
+                         @Param("bucket") int bucket);
+    
+    // Keyset-paged file locations (id, filePath, downloadDate) for layout migration
+    @Query("SELECT p.id, p.filePath, p.downloadDate FROM PhotoEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findFileLocationsAfter(@Param("afterId") String afterId, Limit limit);
+    
+    @Query("SELECT p.downloadDate FROM PhotoEntity p WHERE p.id = :id")
+    Optional<LocalDateTime> findDownloadDateById(@Param("id") String id);
+    
+    // Keyset-paged photo IDs for building the seen filter
+    @Query("SELECT p.id FROM PhotoEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<String> findIdsAfter(@Param("afterId") String afterId, Limit limit);
+    
+    // The tags mapping has no orphan removal, so replacing a photo's tags has to delete the old rows
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM PhotoTagEntity t WHERE t.photo.id = :photoId")
+    int deleteTagsByPhotoId(@Param("photoId") String photoId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE PhotoEntity p SET p.filePath = :filePath WHERE p.id = :id")
+    int updateFilePath(@Param("id") String id, @Param("filePath") String filePath);
+    
+    @Query(value = PHOTO_CARD_SELECT + "FROM PhotoEntity p ORDER BY p.likes DESC",
+           countQuery = "SELECT COUNT(p) FROM PhotoEntity p")
+    Page<PhotoCard> findCardsOrderByLikesDesc(Pageable pageable);
+    
+    // Load the tags for a whole page of photos in one query: rows of [photoId, tagId, tagTitle, tagType]
+    @Query("SELECT t.photo.id, t.id, t.tagTitle, t.tagType FROM PhotoTagEntity t WHERE t.photo.id IN :photoIds ORDER BY t.tagTitle")
+    List<Object[]> findCardTagsByPhotoIds(@Param("photoIds") Collection<String> photoIds);
+    
+    // Rows of [photoId, tagTitle, tagType] for a chunk of photos
+    @Query("SELECT t.photo.id, t.tagTitle, t.tagType FROM PhotoTagEntity t WHERE t.photo.id IN :photoIds")
+    List<Object[]> findTagsByPhotoIds(@Param("photoIds") Collection<String> photoIds);
+    
+    // Scrolls the catalog for export; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM PhotoEntity p ORDER BY p.id")
+    Stream<PhotoEntity> streamAllForExport();
+    
+    @Query("SELECT p.id FROM PhotoEntity p WHERE p.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+}
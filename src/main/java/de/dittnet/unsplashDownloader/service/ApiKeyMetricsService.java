@@ -0,0 +1,78 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.ApiKeyManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-key API budget gauges. A running download uses its own ApiKeyManager, so while one is
+ * active the gauges follow that manager instead of the application-wide one.
+ */
+@Service
+public class ApiKeyMetricsService {
+
+    @Autowired
+    private ApiKeyManager apiKeyManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicReference<ApiKeyManager> downloadKeyManager = new AtomicReference<>();
+    private MultiGauge remainingBudget;
+
+    @PostConstruct
+    public void registerGauges() {
+        this.remainingBudget = MultiGauge.builder("unsplash.api.key.remaining")
+            .description("Requests left in the current hour for each API key")
+            .register(meterRegistry);
+        Gauge.builder("unsplash.api.keys.available", this, service -> {
+                ApiKeyManager manager = service.currentManager();
+                return manager != null ? manager.getAvailableKeysCount() : 0;
+            })
+            .description("API keys that are neither exhausted nor rate limited")
+            .register(meterRegistry);
+    }
+
+    public void trackDownload(ApiKeyManager manager) {
+        downloadKeyManager.set(manager);
+        refresh();
+    }
+
+    public void untrackDownload(ApiKeyManager manager) {
+        downloadKeyManager.compareAndSet(manager, null);
+        refresh();
+    }
+
+    /**
+     * Picks up added or removed keys; the values themselves are read at scrape time
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void refresh() {
+        ApiKeyManager manager = currentManager();
+        if (manager == null) {
+            return;
+        }
+
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (String key : manager.getRemainingBudget().keySet()) {
+            rows.add(MultiGauge.Row.of(Tags.of("key", key), this,
+                service -> service.currentManager().getRemainingBudget().getOrDefault(key, 0)));
+        }
+        remainingBudget.register(rows, true);
+    }
+
+    private ApiKeyManager currentManager() {
+        ApiKeyManager manager = downloadKeyManager.get();
+        return manager != null ? manager : apiKeyManager;
+    }
+}
@@ -1,6 +1,7 @@
 package de.dittnet.unsplashDownloader.service;
 
 import de.dittnet.unsplashDownloader.ApiKeyManager;
+import de.dittnet.unsplashDownloader.UnsplashDownloader;
 import de.dittnet.unsplashDownloader.config.StorageConfig;
 import de.dittnet.unsplashDownloader.model.ApiKeyInfo;
 import okhttp3.OkHttpClient;
@@ -9,6 +10,7 @@ import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -23,10 +25,12 @@ import java.util.concurrent.TimeUnit;
 public class ApiKeyService {
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyService.class);
     private static final String CONFIG_FILE = "config.properties";
-    private static final String API_BASE_URL = "https://api.unsplash.com";
     
     private final OkHttpClient client;
     
+    @Value("${app.unsplash.api-base-url:" + UnsplashDownloader.DEFAULT_API_BASE_URL + "}")
+    private String apiBaseUrl;
+    
     @Autowired
     private StorageConfig storageConfig;
     
@@ -134,7 +138,7 @@ public class ApiKeyService {
             // Use /photos endpoint instead of /me for Client-ID validation
             // /me requires OAuth2 Bearer token, but /photos works with Client-ID
             Request request = new Request.Builder()
-                    .url(API_BASE_URL + "/photos?page=1&per_page=1")
+                    .url(UnsplashDownloader.normalizeBaseUrl(apiBaseUrl) + "/photos?page=1&per_page=1")
                     .header("Authorization", "Client-ID " + trimmedKey)
                     .build();
             
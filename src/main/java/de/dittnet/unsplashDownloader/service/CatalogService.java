@@ -0,0 +1,251 @@
+package de.dittnet.unsplashDownloader.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.dittnet.unsplashDownloader.MetadataSidecar;
+import de.dittnet.unsplashDownloader.config.StorageConfig;
+import de.dittnet.unsplashDownloader.entity.PhotoEntity;
+import de.dittnet.unsplashDownloader.model.CatalogEntry;
+import de.dittnet.unsplashDownloader.model.Photo;
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the photo catalog to and from gzipped NDJSON, one photo per line. Both directions
+ * work chunk by chunk, so memory use stays flat however large the collection is.
+ */
+@Service
+public class CatalogService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogService.class);
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private StorageConfig storageConfig;
+
+    @Autowired
+    private UserSettingsService userSettingsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    /**
+     * Write the whole catalog as gzipped NDJSON. The output stream is finished but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportCatalog(OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        long exported = 0;
+
+        try (Stream<PhotoEntity> photos = photoRepository.streamAllForExport()) {
+            SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(gzip);
+
+            List<PhotoEntity> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<PhotoEntity> iterator = photos.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    exported += writeChunk(writer, chunk);
+                    chunk.clear();
+                }
+            }
+            // Target auto-close is disabled, so this only flushes the generator
+            writer.close();
+        }
+
+        gzip.write('\n');
+        gzip.finish();
+        gzip.flush();
+
+        logger.info("Exported {} photos to catalog archive", exported);
+        return exported;
+    }
+
+    /**
+     * Read a gzipped NDJSON catalog and insert photos that aren't in the database yet
+     */
+    public Map<String, Object> importCatalog(InputStream in) throws IOException {
+        long read = 0;
+        long inserted = 0;
+        ObjectReader reader = objectMapper.readerFor(CatalogEntry.class);
+
+        try (InputStream gzip = new GZIPInputStream(new BufferedInputStream(in, 64 * 1024));
+             MappingIterator<CatalogEntry> entries = reader.readValues(gzip)) {
+
+            List<CatalogEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (entries.hasNextValue()) {
+                chunk.add(entries.nextValue());
+                read++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    inserted += photoService.insertPhotoBatch(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inserted += photoService.insertPhotoBatch(chunk);
+            }
+        }
+
+        logger.info("Imported catalog archive: {} photos read, {} inserted, {} already present",
+            read, inserted, read - inserted);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("read", read);
+        result.put("inserted", inserted);
+        result.put("skipped", read - inserted);
+        return result;
+    }
+
+    /**
+     * Recreate missing catalog rows from the metadata sidecar of an output path (the last one
+     * if none is given), e.g. after the database was lost. Existing photos are left untouched.
+     */
+    public Map<String, Object> rebuildFromSidecar(String outputPath) throws IOException {
+        String path = outputPath != null && !outputPath.isBlank() ? outputPath : userSettingsService.getLastOutputPath();
+        Path photosDir = Paths.get(storageConfig.getUserPhotosDirectory(path));
+        Path metadataDir = photosDir.getParent().resolve("metadata");
+        if (!Files.isDirectory(metadataDir)) {
+            throw new IOException("No metadata sidecar in " + metadataDir);
+        }
+
+        long[] counts = new long[2]; // read, inserted
+        List<CatalogEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+        MetadataSidecar.open(metadataDir).readLatest(record -> {
+            chunk.add(fromSidecarRecord(record, photosDir));
+            counts[0]++;
+            if (chunk.size() == CHUNK_SIZE) {
+                counts[1] += photoService.insertPhotoBatch(chunk);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            counts[1] += photoService.insertPhotoBatch(chunk);
+        }
+
+        logger.info("Rebuilt catalog from {}: {} photos read, {} inserted, {} already present",
+            metadataDir, counts[0], counts[1], counts[0] - counts[1]);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("read", counts[0]);
+        result.put("inserted", counts[1]);
+        result.put("skipped", counts[0] - counts[1]);
+        return result;
+    }
+
+    private CatalogEntry fromSidecarRecord(JsonNode record, Path photosDir) {
+        CatalogEntry entry = new CatalogEntry();
+        entry.setId(record.path("id").asText());
+        entry.setTitle(textOrNull(record, "title"));
+        entry.setDescription(textOrNull(record, "description"));
+        entry.setPhotographerName(textOrNull(record, "photographerName"));
+        entry.setPhotographerUsername(textOrNull(record, "photographerUsername"));
+        entry.setUnsplashUrl(textOrNull(record, "url"));
+        entry.setImageWidth(record.path("width").asInt());
+        entry.setImageHeight(record.path("height").asInt());
+        entry.setColor(textOrNull(record, "color"));
+        entry.setLikes(record.path("likes").asInt());
+        entry.setContentHash(textOrNull(record, "contentHash"));
+
+        String downloadedAt = textOrNull(record, "downloadedAt");
+        entry.setDownloadDate(downloadedAt != null ? LocalDateTime.parse(downloadedAt) : LocalDateTime.now());
+        String fileName = textOrNull(record, "fileName");
+        if (fileName != null) {
+            entry.setFilePath(storageConfig.getPhotoLayout()
+                .resolve(photosDir, fileName, entry.getId(), entry.getDownloadDate()).toString());
+        }
+
+        List<Photo.Tag> tags = new ArrayList<>();
+        for (JsonNode node : record.path("tags")) {
+            Photo.Tag tag = new Photo.Tag();
+            tag.setTitle(textOrNull(node, "title"));
+            tag.setType(textOrNull(node, "type"));
+            tags.add(tag);
+        }
+        entry.setTags(tags);
+        return entry;
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    private int writeChunk(SequenceWriter writer, List<PhotoEntity> chunk) throws IOException {
+        // One query for the tags of the whole chunk instead of touching each lazy collection
+        Map<String, List<Photo.Tag>> tagsByPhoto = new HashMap<>();
+        List<String> ids = chunk.stream().map(PhotoEntity::getId).toList();
+        for (Object[] row : photoRepository.findTagsByPhotoIds(ids)) {
+            Photo.Tag tag = new Photo.Tag();
+            tag.setTitle((String) row[1]);
+            tag.setType((String) row[2]);
+            tagsByPhoto.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add(tag);
+        }
+
+        for (PhotoEntity photo : chunk) {
+            writer.write(toEntry(photo, tagsByPhoto.getOrDefault(photo.getId(), List.of())));
+            // Keep the persistence context from growing with the scroll
+            entityManager.detach(photo);
+        }
+        return chunk.size();
+    }
+
+    private static CatalogEntry toEntry(PhotoEntity photo, List<Photo.Tag> tags) {
+        CatalogEntry entry = new CatalogEntry();
+        entry.setId(photo.getId());
+        entry.setTitle(photo.getTitle());
+        entry.setDescription(photo.getDescription());
+        entry.setFilePath(photo.getFilePath());
+        entry.setPhotographerName(photo.getPhotographerName());
+        entry.setPhotographerUsername(photo.getPhotographerUsername());
+        entry.setDownloadDate(photo.getDownloadDate());
+        entry.setUnsplashUrl(photo.getUnsplashUrl());
+        entry.setImageWidth(photo.getImageWidth());
+        entry.setImageHeight(photo.getImageHeight());
+        entry.setColor(photo.getColor());
+        entry.setLikes(photo.getLikes());
+        entry.setPerceptualHash(photo.getPerceptualHash());
+        entry.setContentHash(photo.getContentHash());
+        entry.setTags(tags);
+        return entry;
+    }
+}
@@ -0,0 +1,398 @@
+package de.dittnet.unsplashDownloader.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.dittnet.unsplashDownloader.config.StorageConfig;
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps collection counters (photos, photographers, per-tag frequencies) in memory so that
+ * statistics pages don't have to run full table scans. Counters are updated by PhotoService
+ * after each committed write and persisted as a snapshot in the state directory.
+ */
+@Service
+public class CollectionCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(CollectionCounterService.class);
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private StorageConfig storageConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final AtomicLong totalPhotos = new AtomicLong(0);
+    private final ConcurrentHashMap<String, Long> photographerCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> tagCounts = new ConcurrentHashMap<>();
+    private final AtomicLong tagVersion = new AtomicLong(0);
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public long getTotalPhotos() {
+        ensureLoaded();
+        return totalPhotos.get();
+    }
+
+    public int getTotalPhotographers() {
+        ensureLoaded();
+        return photographerCounts.size();
+    }
+
+    public int getTotalTags() {
+        ensureLoaded();
+        return tagCounts.size();
+    }
+
+    public long getTagCount(String tagTitle) {
+        ensureLoaded();
+        return tagTitle != null ? tagCounts.getOrDefault(tagTitle, 0L) : 0L;
+    }
+
+    /**
+     * Read-only view of the live per-tag frequencies
+     */
+    public Map<String, Long> getTagCounts() {
+        ensureLoaded();
+        return Collections.unmodifiableMap(tagCounts);
+    }
+
+    /**
+     * Incremented on every change to the tag counts, so callers can cache derived views
+     */
+    public long getTagVersion() {
+        ensureLoaded();
+        return tagVersion.get();
+    }
+
+    /**
+     * Photographer names in alphabetical order, served from memory
+     */
+    public List<String> getPhotographerNames() {
+        ensureLoaded();
+        List<String> names = new ArrayList<>(photographerCounts.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    public void recordPhotoAdded(String photographerName, Collection<String> tagTitles) {
+        afterCommit(() -> {
+            totalPhotos.incrementAndGet();
+            increment(photographerCounts, photographerName);
+            if (tagTitles != null) {
+                tagTitles.forEach(tag -> increment(tagCounts, tag));
+                tagVersion.incrementAndGet();
+            }
+        });
+    }
+
+    public void recordPhotoRemoved(String photographerName, Collection<String> tagTitles) {
+        afterCommit(() -> {
+            totalPhotos.updateAndGet(count -> Math.max(0, count - 1));
+            decrement(photographerCounts, photographerName);
+            if (tagTitles != null) {
+                tagTitles.forEach(tag -> decrement(tagCounts, tag));
+                tagVersion.incrementAndGet();
+            }
+        });
+    }
+
+    public void recordTagsChanged(Collection<String> oldTagTitles, Collection<String> newTagTitles) {
+        afterCommit(() -> {
+            if (oldTagTitles != null) {
+                oldTagTitles.forEach(tag -> decrement(tagCounts, tag));
+            }
+            if (newTagTitles != null) {
+                newTagTitles.forEach(tag -> increment(tagCounts, tag));
+            }
+            tagVersion.incrementAndGet();
+        });
+    }
+
+    /**
+     * Discard the in-memory counters and recompute them from the database
+     */
+    public synchronized void rebuild() {
+        logger.info("Rebuilding collection counters from database...");
+        long photos = photoRepository.count();
+        Map<String, Long> photographers = new HashMap<>();
+        for (Object[] row : photoRepository.countPhotosByPhotographer()) {
+            photographers.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        Map<String, Long> tags = countTagsInDatabase();
+
+        totalPhotos.set(photos);
+        photographerCounts.clear();
+        photographerCounts.putAll(photographers);
+        tagCounts.clear();
+        tagCounts.putAll(tags);
+        tagVersion.incrementAndGet();
+        loaded = true;
+        dirty.set(true);
+
+        logger.info("Collection counters rebuilt: {} photos, {} photographers, {} tags",
+            photos, photographers.size(), tags.size());
+        saveSnapshot();
+    }
+
+    /**
+     * Compare the live counters with a full scan of the database and rebuild them if they have
+     * drifted. Meant for the end of bulk jobs (tag refresh, download run), not for every write.
+     *
+     * @return true if the counters matched
+     */
+    public synchronized boolean verifyAgainstDatabase(String after) {
+        if (!loaded) {
+            return true;
+        }
+        long photos = photoRepository.count();
+        Map<String, Long> tags = countTagsInDatabase();
+        if (photos == totalPhotos.get() && tags.equals(tagCounts)) {
+            logger.debug("Collection counters match the database after {}", after);
+            return true;
+        }
+
+        long differingTags = tags.entrySet().stream()
+            .filter(entry -> !entry.getValue().equals(tagCounts.get(entry.getKey())))
+            .count() + tagCounts.keySet().stream().filter(tag -> !tags.containsKey(tag)).count();
+        logger.warn("Collection counters drifted from the database after {} ({} vs {} photos, {} tag counts differ)",
+            after, totalPhotos.get(), photos, differingTags);
+        rebuild();
+        return false;
+    }
+
+    /**
+     * Persist counters periodically so a restart doesn't require a rebuild
+     */
+    @Scheduled(fixedDelay = 60000) // 1 minute
+    public void saveSnapshotIfDirty() {
+        if (loaded && dirty.get()) {
+            saveSnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        saveSnapshotIfDirty();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            if (!loadSnapshot()) {
+                rebuild();
+            }
+        }
+    }
+
+    private boolean loadSnapshot() {
+        File snapshotFile = new File(storageConfig.getCollectionCountersPath());
+        if (!snapshotFile.exists()) {
+            return false;
+        }
+
+        try {
+            CountersSnapshot snapshot = objectMapper.readValue(snapshotFile, CountersSnapshot.class);
+
+            // The snapshot is only trusted if it still matches the database (e.g. not after a restore).
+            // Photo count alone misses tag edits and deletes balanced by inserts, so the tag rows
+            // and the newest identity and download date have to match as well.
+            DatabaseFingerprint actual = DatabaseFingerprint.read(photoRepository);
+            if (!actual.equals(snapshot.fingerprint())) {
+                logger.info("Collection counter snapshot is stale ({} vs {} in database)",
+                    snapshot.fingerprint(), actual);
+                return false;
+            }
+
+            totalPhotos.set(snapshot.getTotalPhotos());
+            photographerCounts.clear();
+            photographerCounts.putAll(snapshot.getPhotographerCounts());
+            tagCounts.clear();
+            tagCounts.putAll(snapshot.getTagCounts());
+            tagVersion.incrementAndGet();
+            loaded = true;
+            logger.info("Loaded collection counters from snapshot {}", snapshotFile.getAbsolutePath());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to load collection counter snapshot: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void saveSnapshot() {
+        try {
+            File snapshotFile = new File(storageConfig.getCollectionCountersPath());
+            File parentDir = snapshotFile.getParentFile();
+            if (parentDir != null && !parentDir.exists()) {
+                parentDir.mkdirs();
+            }
+
+            // Read first: a commit whose counter update is still pending shows up as a photo count
+            // mismatch, and such a snapshot would not be trusted later anyway
+            DatabaseFingerprint fingerprint = DatabaseFingerprint.read(photoRepository);
+            if (fingerprint.totalPhotos() != totalPhotos.get()) {
+                logger.debug("Collection counters are catching up with the database, snapshot postponed");
+                return;
+            }
+
+            dirty.set(false);
+            CountersSnapshot snapshot = new CountersSnapshot();
+            snapshot.setTotalPhotos(totalPhotos.get());
+            snapshot.setTagRows(fingerprint.tagRows());
+            snapshot.setMaxTagId(fingerprint.maxTagId());
+            snapshot.setLatestDownload(fingerprint.latestDownload());
+            snapshot.setPhotographerCounts(new HashMap<>(photographerCounts));
+            snapshot.setTagCounts(new HashMap<>(tagCounts));
+            snapshot.setLastUpdate(LocalDateTime.now());
+
+            objectMapper.writeValue(snapshotFile, snapshot);
+            logger.debug("Saved collection counter snapshot to {}", snapshotFile.getAbsolutePath());
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Failed to save collection counter snapshot: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Long> countTagsInDatabase() {
+        Map<String, Long> tags = new HashMap<>();
+        for (Object[] row : photoRepository.findPopularTagsWithCount()) {
+            if (row[0] != null) {
+                tags.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return tags;
+    }
+
+    private void afterCommit(Runnable update) {
+        // Only count writes that actually made it into the database
+        AfterCommit.run(() -> {
+            if (loaded) {
+                update.run();
+                dirty.set(true);
+            }
+        });
+    }
+
+    private static void increment(ConcurrentHashMap<String, Long> counts, String key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+
+    private static void decrement(ConcurrentHashMap<String, Long> counts, String key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Cheap aggregates that change with every insert, delete or tag edit
+     */
+    private record DatabaseFingerprint(long totalPhotos, long tagRows, Long maxTagId, LocalDateTime latestDownload) {
+        static DatabaseFingerprint read(PhotoRepository photoRepository) {
+            Object[] tags = photoRepository.findTagFingerprint().get(0);
+            return new DatabaseFingerprint(photoRepository.count(), ((Number) tags[0]).longValue(),
+                tags[1] != null ? ((Number) tags[1]).longValue() : null, photoRepository.findLatestDownloadDate());
+        }
+    }
+
+    private static class CountersSnapshot {
+        private long totalPhotos;
+        private long tagRows;
+        private Long maxTagId;
+        private LocalDateTime latestDownload;
+        private Map<String, Long> photographerCounts = new HashMap<>();
+        private Map<String, Long> tagCounts = new HashMap<>();
+        private LocalDateTime lastUpdate;
+
+        public long getTotalPhotos() {
+            return totalPhotos;
+        }
+
+        public void setTotalPhotos(long totalPhotos) {
+            this.totalPhotos = totalPhotos;
+        }
+
+        public long getTagRows() {
+            return tagRows;
+        }
+
+        public void setTagRows(long tagRows) {
+            this.tagRows = tagRows;
+        }
+
+        public Long getMaxTagId() {
+            return maxTagId;
+        }
+
+        public void setMaxTagId(Long maxTagId) {
+            this.maxTagId = maxTagId;
+        }
+
+        public LocalDateTime getLatestDownload() {
+            return latestDownload;
+        }
+
+        public void setLatestDownload(LocalDateTime latestDownload) {
+            this.latestDownload = latestDownload;
+        }
+
+        DatabaseFingerprint fingerprint() {
+            return new DatabaseFingerprint(totalPhotos, tagRows, maxTagId, latestDownload);
+        }
+
+        public Map<String, Long> getPhotographerCounts() {
+            return photographerCounts;
+        }
+
+        public void setPhotographerCounts(Map<String, Long> photographerCounts) {
+            this.photographerCounts = photographerCounts;
+        }
+
+        public Map<String, Long> getTagCounts() {
+            return tagCounts;
+        }
+
+        public void setTagCounts(Map<String, Long> tagCounts) {
+            this.tagCounts = tagCounts;
+        }
+
+        public LocalDateTime getLastUpdate() {
+            return lastUpdate;
+        }
+
+        public void setLastUpdate(LocalDateTime lastUpdate) {
+            this.lastUpdate = lastUpdate;
+        }
+    }
+}
@@ -53,8 +53,8 @@ public class CollectionStatsService {
         try {
             // Photo collection stats
             stats.setTotalPhotos((int) photoService.getTotalPhotosCount());
-            stats.setTotalPhotographers(photoService.getAllPhotographers().size());
-            stats.setTotalTags(photoService.getAllTags().size());
+            stats.setTotalPhotographers(photoService.getTotalPhotographersCount());
+            stats.setTotalTags(photoService.getTotalTagsCount());
             
             // Download history stats
             List<DownloadProgress> history = progressService.getProgressHistory();
@@ -223,13 +223,25 @@ public class CollectionStatsService {
                 }
             }
             
-            // Other files (descriptions.txt, logs, config, etc.)
+            // Other files (metadata sidecar, legacy descriptions.txt, logs, config, etc.)
             if (userOutputPath != null && !userOutputPath.isEmpty()) {
                 Path descriptionsPath = Paths.get(userOutputPath, "descriptions.txt");
                 if (Files.exists(descriptionsPath)) {
                     otherSize += getFileSize(descriptionsPath);
                     otherCount += 1;
                 }
+                
+                Path metadataPath = Paths.get(userOutputPath, "metadata");
+                if (Files.exists(metadataPath)) {
+                    try (var files = Files.walk(metadataPath)) {
+                        for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                            otherSize += getFileSize(file);
+                            otherCount += 1;
+                        }
+                    } catch (Exception e) {
+                        logger.warn("Failed to walk metadata directory: {}", e.getMessage());
+                    }
+                }
             }
             
             // Logs directory (check both network and local)
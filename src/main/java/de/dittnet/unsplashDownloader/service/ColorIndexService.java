@@ -0,0 +1,149 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.entity.PhotoEntity;
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Maps the dominant hex color of a photo to CIE Lab coordinates and to the Lab cube (bucket)
+ * they fall into. The bucket key is indexed, so a "similar color" search is a handful of
+ * equality lookups on neighbouring buckets, refined by the exact Lab distance.
+ */
+@Service
+public class ColorIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(ColorIndexService.class);
+    private static final Pattern HEX_COLOR = Pattern.compile("^#?[0-9a-fA-F]{6}$");
+    
+    // Default search radius in Lab units (a delta E of ~10-15 still reads as "the same color")
+    public static final int DEFAULT_COLOR_TOLERANCE = 12;
+    
+    // Edge of a bucket cube in Lab units; any color within this radius lies in one of the 27
+    // buckets around the query color
+    public static final int COLOR_BUCKET_SIZE = DEFAULT_COLOR_TOLERANCE;
+    
+    @Autowired
+    private PhotoRepository photoRepository;
+    
+    /**
+     * Fill in Lab columns for photos stored before the color index existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    public void backfillColorIndex() {
+        try {
+            List<String> colors = photoRepository.findUnindexedColors();
+            if (colors.isEmpty()) {
+                return;
+            }
+            
+            logger.info("Indexing {} distinct photo colors...", colors.size());
+            int updatedPhotos = 0;
+            for (String color : colors) {
+                int[] lab = toLab(color);
+                if (lab != null) {
+                    updatedPhotos += photoRepository.updateColorIndex(color, lab[0], lab[1], lab[2], colorBucket(lab));
+                }
+            }
+            logger.info("Color index backfill completed: {} photos updated", updatedPhotos);
+        } catch (Exception e) {
+            logger.warn("Failed to backfill color index: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Set the Lab columns of a photo from its hex color (or clear them if the color is unusable)
+     */
+    public static void applyColorIndex(PhotoEntity entity) {
+        int[] lab = toLab(entity.getColor());
+        entity.setColorL(lab != null ? lab[0] : null);
+        entity.setColorA(lab != null ? lab[1] : null);
+        entity.setColorB(lab != null ? lab[2] : null);
+        entity.setColorBucket(lab != null ? colorBucket(lab) : null);
+    }
+    
+    /**
+     * Key of the bucket a Lab color falls into
+     */
+    public static int colorBucket(int[] lab) {
+        return bucketKey(Math.floorDiv(lab[0], COLOR_BUCKET_SIZE), Math.floorDiv(lab[1], COLOR_BUCKET_SIZE),
+            Math.floorDiv(lab[2], COLOR_BUCKET_SIZE));
+    }
+    
+    /**
+     * Keys of the bucket of a Lab color and its 26 neighbours, which together hold every color
+     * within COLOR_BUCKET_SIZE of it
+     */
+    public static List<Integer> neighbouringBuckets(int[] lab) {
+        int l = Math.floorDiv(lab[0], COLOR_BUCKET_SIZE);
+        int a = Math.floorDiv(lab[1], COLOR_BUCKET_SIZE);
+        int b = Math.floorDiv(lab[2], COLOR_BUCKET_SIZE);
+        List<Integer> keys = new ArrayList<>(27);
+        for (int dl = -1; dl <= 1; dl++) {
+            for (int da = -1; da <= 1; da++) {
+                for (int db = -1; db <= 1; db++) {
+                    keys.add(bucketKey(l + dl, a + da, b + db));
+                }
+            }
+        }
+        return keys;
+    }
+    
+    // Bucket coordinates stay within -12..11 for L in 0..100 and a, b in -128..127
+    private static int bucketKey(int l, int a, int b) {
+        return ((l + 16) << 10) | ((a + 16) << 5) | (b + 16);
+    }
+    
+    public static boolean isHexColor(String color) {
+        return color != null && HEX_COLOR.matcher(color.trim()).matches();
+    }
+    
+    /**
+     * Convert an sRGB hex color such as "#a3b2c1" to rounded CIE Lab (D65) coordinates
+     */
+    public static int[] toLab(String hexColor) {
+        if (!isHexColor(hexColor)) {
+            return null;
+        }
+        
+        String hex = hexColor.trim();
+        if (hex.startsWith("#")) {
+            hex = hex.substring(1);
+        }
+        int rgb = Integer.parseInt(hex, 16);
+        double r = toLinear(((rgb >> 16) & 0xFF) / 255.0);
+        double g = toLinear(((rgb >> 8) & 0xFF) / 255.0);
+        double b = toLinear((rgb & 0xFF) / 255.0);
+        
+        // Linear sRGB -> XYZ, normalized by the D65 white point
+        double x = (r * 0.4124564 + g * 0.3575761 + b * 0.1804375) / 0.95047;
+        double y = (r * 0.2126729 + g * 0.7151522 + b * 0.0721750);
+        double z = (r * 0.0193339 + g * 0.1191920 + b * 0.9503041) / 1.08883;
+        
+        double fx = labF(x);
+        double fy = labF(y);
+        double fz = labF(z);
+        
+        int l = (int) Math.round(116.0 * fy - 16.0);
+        int a = (int) Math.round(500.0 * (fx - fy));
+        int bValue = (int) Math.round(200.0 * (fy - fz));
+        return new int[] { l, a, bValue };
+    }
+    
+    private static double toLinear(double channel) {
+        return channel <= 0.04045 ? channel / 12.92 : Math.pow((channel + 0.055) / 1.055, 2.4);
+    }
+    
+    private static double labF(double t) {
+        return t > 0.008856 ? Math.cbrt(t) : (7.787 * t) + (16.0 / 116.0);
+    }
+}
@@ -1,8 +1,11 @@
 package de.dittnet.unsplashDownloader.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.EventListener;
@@ -30,6 +33,12 @@ public class DatabaseSyncService {
     @Autowired
     private de.dittnet.unsplashDownloader.config.StorageConfig storageConfig;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.database.backend:h2}")
+    private String databaseBackend;
+    
     /**
      * Static method to initialize database from network BEFORE Spring context starts
      */
@@ -91,7 +100,10 @@ public class DatabaseSyncService {
     public void onApplicationReady() {
         String configuredPath = storageConfig.getDatabasePath();
         
-        if (configuredPath.startsWith("/Volumes/")) {
+        if (!"h2".equalsIgnoreCase(databaseBackend)) {
+            // Only the embedded H2 files can be mirrored to a network drive
+            logger.info("Database sync service disabled - using {} backend", databaseBackend);
+        } else if (configuredPath.startsWith("/Volumes/")) {
             networkDbPath = configuredPath.substring(0, configuredPath.lastIndexOf("/")) + "/";
             syncEnabled = true;
             
@@ -199,7 +211,7 @@ public class DatabaseSyncService {
                     
                     for (File networkFile : networkDbFiles) {
                         File localFile = new File(localDir, networkFile.getName());
-                        copyFileWithRetry(networkFile.toPath(), localFile.toPath());
+                        copyFileWithRetry(networkFile.toPath(), localFile.toPath(), "from-network");
                     }
                     
                     logger.info("Database initialization from network completed successfully");
@@ -263,7 +275,7 @@ public class DatabaseSyncService {
                     
                     // Only sync if local file is newer or network file doesn't exist
                     if (!networkFile.exists() || localFile.lastModified() > networkFile.lastModified()) {
-                        if (copyFileWithRetry(localFile.toPath(), networkFile.toPath())) {
+                        if (copyFileWithRetry(localFile.toPath(), networkFile.toPath(), "to-network")) {
                             syncedFiles++;
                         }
                     }
@@ -324,7 +336,7 @@ public class DatabaseSyncService {
                     File networkFile = new File(networkDir, localFile.getName());
                     
                     // Always sync on shutdown or force sync
-                    if (copyFileWithRetry(localFile.toPath(), networkFile.toPath())) {
+                    if (copyFileWithRetry(localFile.toPath(), networkFile.toPath(), "to-network")) {
                         syncedFiles++;
                     }
                 }
@@ -393,7 +405,21 @@ public class DatabaseSyncService {
     /**
      * Copy file with retry logic for network reliability
      */
-    private boolean copyFileWithRetry(Path source, Path target) {
+    private boolean copyFileWithRetry(Path source, Path target, String direction) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean copied = copyWithRetry(source, target);
+        sample.stop(meterRegistry.timer("unsplash.db.sync.copy", "direction", direction, "outcome", copied ? "success" : "failed"));
+        if (copied) {
+            try {
+                meterRegistry.counter("unsplash.db.sync.bytes", "direction", direction).increment(Files.size(target));
+            } catch (IOException e) {
+                logger.debug("Could not read size of {}: {}", target, e.getMessage());
+            }
+        }
+        return copied;
+    }
+    
+    private boolean copyWithRetry(Path source, Path target) {
         int maxRetries = 3;
         int retryDelay = 1000; // 1 second
         
@@ -0,0 +1,97 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.model.PhotoTiming;
+import de.dittnet.unsplashDownloader.model.SpanPercentiles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the span breakdown of the most recent photos and turns it into rolling percentiles,
+ * so a drop in throughput can be pinned on the API, the CDN, EXIF writing or the database.
+ */
+@Service
+public class DownloadDiagnosticsService {
+    private static final int RECENT_TIMINGS = 20;
+
+    private final int windowSize;
+    private final Map<String, RollingWindow> windows = new LinkedHashMap<>();
+    private final Deque<PhotoTiming> recentTimings = new ArrayDeque<>();
+
+    public DownloadDiagnosticsService(@Value("${app.diagnostics.window-size:500}") int windowSize) {
+        this.windowSize = Math.max(1, windowSize);
+    }
+
+    public synchronized void record(PhotoTiming timing) {
+        for (Map.Entry<String, Double> span : timing.getSpans().entrySet()) {
+            windows.computeIfAbsent(span.getKey(), key -> new RollingWindow(windowSize)).add(span.getValue());
+        }
+        recentTimings.addLast(timing);
+        while (recentTimings.size() > RECENT_TIMINGS) {
+            recentTimings.removeFirst();
+        }
+    }
+
+    /**
+     * Percentiles per span in the order the spans were first seen
+     */
+    public synchronized Map<String, SpanPercentiles> getPercentiles() {
+        Map<String, SpanPercentiles> percentiles = new LinkedHashMap<>();
+        for (Map.Entry<String, RollingWindow> window : windows.entrySet()) {
+            percentiles.put(window.getKey(), window.getValue().percentiles());
+        }
+        return percentiles;
+    }
+
+    public synchronized List<PhotoTiming> getRecentTimings() {
+        return new ArrayList<>(recentTimings);
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public synchronized void reset() {
+        windows.clear();
+        recentTimings.clear();
+    }
+
+    private static class RollingWindow {
+        private final double[] values;
+        private int next;
+        private int count;
+
+        RollingWindow(int size) {
+            this.values = new double[size];
+        }
+
+        void add(double value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            count = Math.min(count + 1, values.length);
+        }
+
+        SpanPercentiles percentiles() {
+            double[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return new SpanPercentiles(count, rank(sorted, 0.50), rank(sorted, 0.90), rank(sorted, 0.99),
+                count > 0 ? sorted[count - 1] : 0);
+        }
+
+        private static double rank(double[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            // Nearest-rank: the smallest value with at least this share of samples at or below it
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}
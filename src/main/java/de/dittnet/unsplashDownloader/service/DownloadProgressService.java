@@ -113,6 +113,7 @@ public class DownloadProgressService {
         copy.setMessage(original.getMessage());
         copy.setStartTime(original.getStartTime());
         copy.setEndTime(original.getEndTime());
+        copy.setSpanPercentiles(original.getSpanPercentiles());
         return copy;
     }
 }
\ No newline at end of file
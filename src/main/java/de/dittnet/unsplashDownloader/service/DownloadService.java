@@ -1,24 +1,42 @@
 package de.dittnet.unsplashDownloader.service;
 
+import de.dittnet.unsplashDownloader.BandwidthLimiter;
+import de.dittnet.unsplashDownloader.BlobStore;
+import de.dittnet.unsplashDownloader.DownloadCancelledException;
+import de.dittnet.unsplashDownloader.DownloadControl;
+import de.dittnet.unsplashDownloader.RenditionPolicy;
 import de.dittnet.unsplashDownloader.UnsplashDownloader;
+import de.dittnet.unsplashDownloader.config.ExecutorConfig;
 import de.dittnet.unsplashDownloader.config.StorageConfig;
 import de.dittnet.unsplashDownloader.model.DownloadStatus;
 import de.dittnet.unsplashDownloader.model.DownloadProgress;
+import de.dittnet.unsplashDownloader.model.PhotoTiming;
+import de.dittnet.unsplashDownloader.source.PhotoSource;
+import de.dittnet.unsplashDownloader.source.PhotoSources;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class DownloadService {
     private static final Logger logger = LoggerFactory.getLogger(DownloadService.class);
+    // Per-photo progress is coalesced to at most one WebSocket update per interval
+    private static final long PHOTO_PROGRESS_INTERVAL_MS = 250;
     
     @Autowired
     private PhotoService photoService;
@@ -32,12 +50,82 @@ public class DownloadService {
     @Autowired
     private UserSettingsService userSettingsService;
     
+    @Autowired
+    private ApiKeyMetricsService apiKeyMetricsService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private DownloadDiagnosticsService diagnosticsService;
+    
+    // Downloads block on the network for hours, so they get virtual threads instead of the common pool
+    @Autowired
+    @Qualifier(ExecutorConfig.DOWNLOAD_EXECUTOR)
+    private ExecutorService downloadExecutor;
+    
+    @Autowired
+    @Qualifier(ExecutorConfig.IMAGE_EXECUTOR)
+    private Executor imageExecutor;
+    
+    @Autowired
+    private BandwidthLimiter bandwidthLimiter;
+    
+    @Autowired
+    private ThumbnailService thumbnailService;
+    
+    @Autowired
+    private CollectionCounterService counterService;
+    
+    @Value("${app.duplicates.skip-downloads:false}")
+    private boolean skipNearDuplicates;
+    
+    @Value("${app.unsplash.api-base-url:" + UnsplashDownloader.DEFAULT_API_BASE_URL + "}")
+    private String apiBaseUrl;
+    
+    @Value("${app.rendition.preset:" + RenditionPolicy.DEFAULT_PRESET + "}")
+    private String defaultRendition;
+    
+    @Value("${app.download.write-behind.batch-size:" + UnsplashDownloader.DEFAULT_WRITE_BATCH_SIZE + "}")
+    private int writeBatchSize;
+    
+    @Value("${app.download.write-behind.max-delay:" + UnsplashDownloader.DEFAULT_WRITE_MAX_DELAY_MS + "ms}")
+    private Duration writeMaxDelay;
+    
     private final ConcurrentHashMap<String, CompletableFuture<Void>> activeDownloads = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, UnsplashDownloader> activeDownloaders = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DownloadControl> activeControls = new ConcurrentHashMap<>();
     private final AtomicReference<DownloadProgress> currentProgress = new AtomicReference<>();
-    private final AtomicReference<Boolean> cancellationRequested = new AtomicReference<>(false);
     
     public CompletableFuture<Void> startDownload(String username, String outputPath) {
+        return startDownload(username, outputPath, resolveRendition(null, null, null, null, null));
+    }
+    
+    /**
+     * A preset (or the configured default) with any explicitly given values applied on top
+     */
+    public RenditionPolicy resolveRendition(String preset, Integer maxDimension, Integer quality, String format,
+                                            Boolean prefetchThumbnail) {
+        String name = preset != null && !preset.isBlank() ? preset : defaultRendition;
+        return RenditionPolicy.preset(name).override(maxDimension, quality, format, prefetchThumbnail);
+    }
+    
+    public CompletableFuture<Void> startDownload(String username, String outputPath, RenditionPolicy rendition) {
+        return startDownload(username, outputPath, rendition, false);
+    }
+    
+    public CompletableFuture<Void> startDownload(String username, String outputPath, RenditionPolicy rendition,
+                                                 boolean incremental) {
+        return startDownload(PhotoSources.parse(username), outputPath, rendition, incremental);
+    }
+    
+    /**
+     * Starts a full download, or with incremental set only fetches photos newer than the
+     * source's sync watermark. Progress reports the source key in place of the username.
+     */
+    public CompletableFuture<Void> startDownload(PhotoSource source, String outputPath, RenditionPolicy rendition,
+                                                 boolean incremental) {
+        String username = source.getKey();
         String downloadId = generateDownloadId(username);
         
         if (activeDownloads.containsKey(downloadId)) {
@@ -56,15 +144,23 @@ public class DownloadService {
         progress.setTotalPhotos(0);
         progress.setDownloadedPhotos(0);
         progress.setCurrentPhoto("");
-        progress.setMessage("Initializing download...");
+        progress.setMessage(incremental ? "Checking for new photos..." : "Initializing download...");
         
         currentProgress.set(progress);
         progressService.updateProgress(progress);
-        cancellationRequested.set(false);
+        
+        DownloadControl control = new DownloadControl();
+        activeControls.put(downloadId, control);
         
         CompletableFuture<Void> downloadFuture = CompletableFuture.runAsync(() -> {
             try {
-                performDownload(username, outputPath, progress, downloadId);
+                performDownload(source, outputPath, progress, downloadId, control, rendition, incremental);
+            } catch (DownloadCancelledException e) {
+                logger.info("Download cancelled for user: {}", username);
+                progress.setStatus(DownloadStatus.CANCELLED);
+                progress.setMessage("Download cancelled by user");
+                progress.setEndTime(LocalDateTime.now());
+                progressService.updateProgress(progress);
             } catch (InterruptedException e) {
                 logger.info("Download interrupted for user: " + username);
                 progress.setStatus(DownloadStatus.CANCELLED);
@@ -81,14 +177,16 @@ public class DownloadService {
             } finally {
                 activeDownloads.remove(downloadId);
                 activeDownloaders.remove(downloadId);
+                activeControls.remove(downloadId);
             }
-        });
+        }, downloadExecutor);
         
         activeDownloads.put(downloadId, downloadFuture);
         return downloadFuture;
     }
     
-    private void performDownload(String username, String outputPath, DownloadProgress progress, String downloadId) throws IOException, InterruptedException {
+    private void performDownload(PhotoSource source, String outputPath, DownloadProgress progress, String downloadId,
+                                 DownloadControl control, RenditionPolicy rendition, boolean incremental) throws IOException, InterruptedException {
         // Create user photos directory (within the output path)
         String userPhotosDir = storageConfig.getUserPhotosDirectory(outputPath);
         File photosDir = new File(userPhotosDir);
@@ -105,28 +203,43 @@ public class DownloadService {
         progress.setStatus(DownloadStatus.DOWNLOADING);
         progress.setMessage("Starting download from Unsplash...");
         progressService.updateProgress(progress);
+        diagnosticsService.reset();
         
         // Create custom progress callback
         DownloadProgressCallback callback = new DownloadProgressCallback() {
+            private long lastPhotoUpdate;
+            
             @Override
             public void onPhotoStarted(String photoId, String filename, int currentIndex, int totalPhotos) {
-                // Check for cancellation
-                if (cancellationRequested.get() || Thread.currentThread().isInterrupted()) {
-                    throw new RuntimeException("Download cancelled");
-                }
-                
                 progress.setCurrentPhoto(filename);
                 progress.setDownloadedPhotos(currentIndex);
                 progress.setTotalPhotos(totalPhotos);
                 progress.setMessage("Downloading: " + filename + " (" + (currentIndex + 1) + "/" + totalPhotos + ")");
-                progressService.updateProgress(progress);
+                sendPhotoUpdate();
             }
             
             @Override
             public void onPhotoCompleted(String photoId, String filename, int currentIndex, int totalPhotos) {
                 progress.setDownloadedPhotos(currentIndex + 1);
                 progress.setMessage("Completed: " + filename + " (" + (currentIndex + 1) + "/" + totalPhotos + ")");
-                progressService.updateProgress(progress);
+                sendPhotoUpdate();
+            }
+            
+            // Skipped updates are not lost: the progress object is shared and the next send carries them
+            private void sendPhotoUpdate() {
+                long now = System.currentTimeMillis();
+                if (now - lastPhotoUpdate >= PHOTO_PROGRESS_INTERVAL_MS) {
+                    lastPhotoUpdate = now;
+                    progressService.updateProgress(progress);
+                }
+            }
+            
+            @Override
+            public void onPhotoTimings(PhotoTiming timing) {
+                // Sent along with the following onPhotoCompleted update
+                diagnosticsService.record(timing);
+                progress.setLastPhotoTiming(timing);
+                progress.setSpanPercentiles(diagnosticsService.getPercentiles());
             }
             
             @Override
@@ -145,19 +258,45 @@ public class DownloadService {
         
         // Create downloader instance with progress callback
         // Pass the photos directory - the UnsplashDownloader will create the right state path
-        UnsplashDownloader downloader = new UnsplashDownloader(userPhotosDir, photoService);
+        BlobStore blobStore = BlobStore.forVolume(photosDir.toPath(), Paths.get(storageConfig.getBlobsDirectory()),
+                new File(systemDir, "blobs").toPath(), Paths.get(storageConfig.getBlobStoreRegistryPath()));
+        UnsplashDownloader downloader = new UnsplashDownloader(userPhotosDir, photoService, blobStore);
         downloader.setProgressCallback(callback);
+        downloader.setSkipNearDuplicates(skipNearDuplicates);
+        downloader.setApiBaseUrl(apiBaseUrl);
+        downloader.setPhotoLayout(storageConfig.getPhotoLayout());
+        downloader.setMeterRegistry(meterRegistry);
+        downloader.setImageExecutor(imageExecutor);
+        downloader.setDownloadControl(control);
+        downloader.setBandwidthLimiter(bandwidthLimiter);
+        downloader.setRenditionPolicy(rendition);
+        downloader.setWriteBehind(writeBatchSize, writeMaxDelay.toMillis());
+        downloader.setThumbnailDirectory(new File(thumbnailService.getThumbnailsPath()));
+        logger.info("{} {} with rendition: {}", incremental ? "Syncing" : "Downloading", source.getKey(), rendition);
         
         // Store the downloader for potential cancellation
         activeDownloaders.put(downloadId, downloader);
         
         // Start the download
-        downloader.downloadUserPhotos(username);
+        apiKeyMetricsService.trackDownload(downloader.getApiKeyManager());
+        int newPhotos = -1;
+        try {
+            if (incremental) {
+                newPhotos = downloader.syncPhotos(source);
+            } else {
+                downloader.downloadPhotos(source);
+            }
+        } finally {
+            apiKeyMetricsService.untrackDownload(downloader.getApiKeyManager());
+        }
+        
+        // Re-downloads replace catalog rows, so check the counters still agree with the tables
+        counterService.verifyAgainstDatabase("download of " + source.getKey());
         
         // Mark as completed
         progress.setStatus(DownloadStatus.COMPLETED);
         progress.setEndTime(LocalDateTime.now());
-        progress.setMessage("Download completed successfully!");
+        progress.setMessage(incremental ? "Sync completed: " + newPhotos + " new photos" : "Download completed successfully!");
         progressService.updateProgress(progress);
     }
     
@@ -170,36 +309,60 @@ public class DownloadService {
     }
     
     public void cancelDownload(String username) {
-        String downloadId = generateDownloadId(username);
-        
-        // Set cancellation flag
-        cancellationRequested.set(true);
+        DownloadControl control = activeControls.get(generateDownloadId(username));
+        DownloadProgress progress = currentProgress.get();
         
-        // Cancel the future
-        CompletableFuture<Void> future = activeDownloads.get(downloadId);
-        if (future != null) {
-            future.cancel(true);
+        if (control != null) {
+            // Aborts the call in flight; the download thread reports CANCELLED once it has stopped
+            logger.info("Cancelling download for user: {}", username);
+            control.cancel();
+            if (progress != null && progress.getUsername().equals(username)) {
+                progress.setMessage("Cancelling download...");
+                progressService.updateProgress(progress);
+            }
+        } else if (progress != null && progress.getUsername().equals(username) && progress.isActive()) {
+            // Nothing is running any more, just close out the stale progress
+            progress.setStatus(DownloadStatus.CANCELLED);
+            progress.setMessage("Download cancelled by user");
+            progress.setEndTime(LocalDateTime.now());
+            progressService.updateProgress(progress);
+        }
+    }
+    
+    /**
+     * Parks the download at its next stage boundary; the photo in flight is finished first
+     */
+    public boolean pauseDownload(String username) {
+        DownloadControl control = activeControls.get(generateDownloadId(username));
+        if (control == null || control.isCancelled()) {
+            return false;
         }
         
-        // Get the downloader and interrupt if possible
-        UnsplashDownloader downloader = activeDownloaders.get(downloadId);
-        if (downloader != null) {
-            // You might want to add a cancel method to UnsplashDownloader
-            logger.info("Cancelling download for user: {}", username);
+        control.pause();
+        updateStatus(username, DownloadStatus.PAUSED, "Download paused");
+        logger.info("Paused download for user: {}", username);
+        return true;
+    }
+    
+    public boolean resumeDownload(String username) {
+        DownloadControl control = activeControls.get(generateDownloadId(username));
+        if (control == null || control.isCancelled()) {
+            return false;
         }
         
-        // Update progress
+        control.resume();
+        updateStatus(username, DownloadStatus.DOWNLOADING, "Download resumed");
+        logger.info("Resumed download for user: {}", username);
+        return true;
+    }
+    
+    private void updateStatus(String username, DownloadStatus status, String message) {
         DownloadProgress progress = currentProgress.get();
         if (progress != null && progress.getUsername().equals(username)) {
-            progress.setStatus(DownloadStatus.CANCELLED);
-            progress.setMessage("Download cancelled by user");
-            progress.setEndTime(LocalDateTime.now());
+            progress.setStatus(status);
+            progress.setMessage(message);
             progressService.updateProgress(progress);
         }
-        
-        // Clean up
-        activeDownloads.remove(downloadId);
-        activeDownloaders.remove(downloadId);
     }
     
     private String generateDownloadId(String username) {
@@ -212,5 +375,10 @@ public class DownloadService {
         void onPhotoCompleted(String photoId, String filename, int currentIndex, int totalPhotos);
         void onTotalPhotosDiscovered(int totalPhotos);
         void onError(String photoId, String error);
+        
+        /**
+         * Span breakdown of a photo, reported just before onPhotoCompleted
+         */
+        default void onPhotoTimings(PhotoTiming timing) {}
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.PerceptualHash;
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds near-duplicate photos by Hamming distance between perceptual hashes.
+ * Hashes are kept in an in-memory BK-tree, so a lookup only visits the branches
+ * that can still contain a match instead of comparing against every photo.
+ */
+@Service
+public class DuplicateDetectionService {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionService.class);
+    
+    @Autowired
+    private PhotoRepository photoRepository;
+    
+    @Value("${app.duplicates.max-distance:5}")
+    private int maxDistance;
+    
+    private BkNode root;
+    private int size;
+    private volatile boolean loaded = false;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+    
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+    
+    /**
+     * IDs of stored photos whose hash is within the configured distance of the given hash
+     */
+    public List<String> findNearDuplicates(long hash) {
+        return findNearDuplicates(hash, maxDistance);
+    }
+    
+    public synchronized List<String> findNearDuplicates(long hash, int distance) {
+        ensureLoaded();
+        List<String> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        
+        Deque<BkNode> candidates = new ArrayDeque<>();
+        candidates.push(root);
+        while (!candidates.isEmpty()) {
+            BkNode node = candidates.pop();
+            int nodeDistance = PerceptualHash.distance(hash, node.hash);
+            if (nodeDistance <= distance) {
+                matches.addAll(node.photoIds);
+            }
+            
+            // Triangle inequality: only children within [d - distance, d + distance] can match
+            for (Map.Entry<Integer, BkNode> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - nodeDistance) <= distance) {
+                    candidates.push(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+    
+    public void register(String photoId, long hash) {
+        AfterCommit.run(() -> insertLoaded(photoId, hash));
+    }
+    
+    public void unregister(String photoId, long hash) {
+        AfterCommit.run(() -> remove(photoId, hash));
+    }
+    
+    public synchronized int getIndexedPhotoCount() {
+        ensureLoaded();
+        return size;
+    }
+    
+    private synchronized void insertLoaded(String photoId, long hash) {
+        ensureLoaded();
+        insert(photoId, hash);
+    }
+    
+    private synchronized void remove(String photoId, long hash) {
+        if (!loaded || root == null) {
+            return;
+        }
+        
+        BkNode node = root;
+        while (node != null) {
+            int nodeDistance = PerceptualHash.distance(hash, node.hash);
+            if (nodeDistance == 0) {
+                // Nodes stay in place to keep the tree valid; only the photo reference goes away
+                if (node.photoIds.remove(photoId)) {
+                    size--;
+                }
+                return;
+            }
+            node = node.children.get(nodeDistance);
+        }
+    }
+    
+    private synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        
+        for (Object[] row : photoRepository.findPerceptualHashes()) {
+            insert((String) row[0], ((Number) row[1]).longValue());
+        }
+        loaded = true;
+        logger.info("Loaded {} perceptual hashes into duplicate index", size);
+    }
+    
+    private void insert(String photoId, long hash) {
+        if (root == null) {
+            root = new BkNode(hash);
+            root.photoIds.add(photoId);
+            size++;
+            return;
+        }
+        
+        BkNode node = root;
+        while (true) {
+            int nodeDistance = PerceptualHash.distance(hash, node.hash);
+            if (nodeDistance == 0) {
+                if (!node.photoIds.contains(photoId)) {
+                    node.photoIds.add(photoId);
+                    size++;
+                }
+                return;
+            }
+            
+            BkNode child = node.children.get(nodeDistance);
+            if (child == null) {
+                child = new BkNode(hash);
+                child.photoIds.add(photoId);
+                node.children.put(nodeDistance, child);
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+    
+    private static class BkNode {
+        private final long hash;
+        private final List<String> photoIds = new ArrayList<>(1);
+        private final Map<Integer, BkNode> children = new HashMap<>();
+        
+        BkNode(long hash) {
+            this.hash = hash;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -30,6 +31,9 @@ public class ExifViewerService {
     @Autowired
     private UserSettingsService userSettingsService;
     
+    @Autowired
+    private PhotoLayoutService photoLayoutService;
+    
     /**
      * Read EXIF metadata from image file
      */
@@ -156,12 +160,12 @@ public class ExifViewerService {
      * Get file path for a photo
      */
     private String getPhotoFilePath(PhotoEntity photo, String userOutputPath) {
-        // Extract filename from filePath
-        String filename = Paths.get(photo.getFilePath()).getFileName().toString();
-        
-        if (userOutputPath != null && !userOutputPath.trim().isEmpty()) {
-            return Paths.get(userOutputPath, "photos", filename).toString();
+        File file = photoLayoutService.resolvePhotoFile(photo);
+        if (file != null) {
+            return file.getAbsolutePath();
         }
-        return Paths.get("./unsplash-data/photos", filename).toString();
+        
+        // Not found anywhere - report where it should be in the current layout
+        return photoLayoutService.getLayoutPath(photo).toString();
     }
 }
\ No newline at end of file
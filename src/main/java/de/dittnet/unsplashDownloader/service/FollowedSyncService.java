@@ -0,0 +1,142 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.RenditionPolicy;
+import de.dittnet.unsplashDownloader.SyncWatermarkStore;
+import de.dittnet.unsplashDownloader.model.DownloadProgress;
+import de.dittnet.unsplashDownloader.model.DownloadStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps followed photographers up to date. On a fixed cadence each of them gets an incremental
+ * sync, which costs one listing page plus one detail call per new photo instead of a full walk.
+ */
+@Service
+public class FollowedSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(FollowedSyncService.class);
+
+    @Autowired
+    private DownloadService downloadService;
+
+    @Autowired
+    private UserSettingsService userSettingsService;
+
+    @Value("${app.sync.enabled:true}")
+    private boolean syncEnabled;
+
+    // Empty means the output path of the last download
+    @Value("${app.sync.output-path:}")
+    private String syncOutputPath;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile String currentUsername;
+    private volatile LocalDateTime lastRunStart;
+    private volatile LocalDateTime lastRunEnd;
+    private volatile int lastRunUsers;
+
+    @Scheduled(initialDelayString = "${app.sync.initial-delay:PT5M}", fixedDelayString = "${app.sync.interval:PT6H}")
+    public void scheduledSync() {
+        if (!syncEnabled || userSettingsService.getFollowedUsernames().isEmpty()) {
+            return;
+        }
+        syncFollowed();
+    }
+
+    @Async
+    public void syncFollowedAsync() {
+        syncFollowed();
+    }
+
+    /**
+     * Syncs the followed photographers one after the other, so a run never competes with
+     * itself for API budget
+     */
+    public void syncFollowed() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Sync of followed photographers already running");
+            return;
+        }
+
+        lastRunStart = LocalDateTime.now();
+        try {
+            String outputPath = getOutputPath();
+            List<String> usernames = new ArrayList<>(userSettingsService.getFollowedUsernames());
+            RenditionPolicy rendition = downloadService.resolveRendition(null, null, null, null, null);
+            logger.info("Syncing {} followed photographers into {}", usernames.size(), outputPath);
+
+            int synced = 0;
+            for (String username : usernames) {
+                if (downloadService.isDownloadInProgress(username)) {
+                    logger.info("Skipping sync of {}, a download is already running", username);
+                    continue;
+                }
+
+                currentUsername = username;
+                try {
+                    downloadService.startDownload(username, outputPath, rendition, true).join();
+                    // The job reports its own failures through its progress instead of the future
+                    DownloadProgress progress = downloadService.getCurrentProgress();
+                    if (progress != null && username.equals(progress.getUsername())
+                            && progress.getStatus() == DownloadStatus.COMPLETED) {
+                        synced++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Sync of {} failed: {}", username, e.getMessage());
+                }
+            }
+            lastRunUsers = synced;
+            logger.info("Synced {} of {} followed photographers", synced, usernames.size());
+        } finally {
+            currentUsername = null;
+            lastRunEnd = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public String getOutputPath() {
+        if (syncOutputPath != null && !syncOutputPath.isBlank()) {
+            return syncOutputPath.trim();
+        }
+        return userSettingsService.getLastOutputPath();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", syncEnabled);
+        status.put("running", running.get());
+        status.put("currentUsername", currentUsername);
+        status.put("lastRunStart", lastRunStart);
+        status.put("lastRunEnd", lastRunEnd);
+        status.put("lastRunUsers", lastRunUsers);
+        status.put("outputPath", getOutputPath());
+        status.put("followed", userSettingsService.getFollowedUsernames());
+
+        try {
+            File systemDir = new File(getOutputPath(), ".unsplash-downloader");
+            // Opening the store would create the directory, which a status read shouldn't do
+            status.put("watermarks", systemDir.isDirectory() ? new SyncWatermarkStore(systemDir).getAll() : Map.of());
+        } catch (IOException e) {
+            logger.warn("Failed to read sync watermarks: {}", e.getMessage());
+            status.put("watermarks", Map.of());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,340 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.PhotoLayout;
+import de.dittnet.unsplashDownloader.config.StorageConfig;
+import de.dittnet.unsplashDownloader.entity.PhotoEntity;
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves photo files through the configured directory layout and migrates existing
+ * collections between layouts.
+ */
+@Service
+public class PhotoLayoutService {
+    private static final Logger logger = LoggerFactory.getLogger(PhotoLayoutService.class);
+    private static final int MIGRATION_BATCH_SIZE = 500;
+    private static final String PHOTOS_DIRECTORY = "photos";
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private StorageConfig storageConfig;
+
+    @Autowired
+    private UserSettingsService userSettingsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean migrationRunning = new AtomicBoolean(false);
+    private volatile MigrationStatus migrationStatus = new MigrationStatus();
+
+    public PhotoLayout getLayout() {
+        return storageConfig.getPhotoLayout();
+    }
+
+    public Path getPhotosDirectory() {
+        return Paths.get(storageConfig.getUserPhotosDirectory(userSettingsService.getLastOutputPath()));
+    }
+
+    /**
+     * Find the file of a photo: its stored path first, then its place in the current layout,
+     * then the flat location of a collection that hasn't been migrated yet. The photos
+     * directory of the stored path is tried before the one of the current output path.
+     */
+    public File resolvePhotoFile(PhotoEntity photo) {
+        return resolvePhotoFile(photo.getId(), photo.getFilePath(), photo.getDownloadDate());
+    }
+
+    public File resolvePhotoFile(String photoId, String filePath, LocalDateTime downloadDate) {
+        if (filePath == null) {
+            return null;
+        }
+
+        File stored = new File(filePath);
+        if (stored.exists()) {
+            return stored;
+        }
+
+        String fileName = Paths.get(filePath).getFileName().toString();
+        Set<Path> photosDirs = new LinkedHashSet<>();
+        Path storedRoot = photosRoot(Paths.get(filePath));
+        if (storedRoot != null) {
+            photosDirs.add(storedRoot);
+        }
+        photosDirs.add(getPhotosDirectory());
+        for (Path photosDir : photosDirs) {
+            File layoutFile = getLayout().resolve(photosDir, fileName, photoId, downloadDate).toFile();
+            if (layoutFile.exists()) {
+                return layoutFile;
+            }
+            File flatFile = photosDir.resolve(fileName).toFile();
+            if (flatFile.exists()) {
+                return flatFile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The photos directory a file belongs to, i.e. its nearest ancestor named photos (layout
+     * sub-directories never are), or its own directory
+     */
+    private static Path photosRoot(Path file) {
+        for (Path dir = file.getParent(); dir != null; dir = dir.getParent()) {
+            Path name = dir.getFileName();
+            if (name != null && PHOTOS_DIRECTORY.equals(name.toString())) {
+                return dir;
+            }
+        }
+        return file.getParent();
+    }
+
+    /**
+     * Where a photo belongs in the current layout, whether or not it is there yet
+     */
+    public Path getLayoutPath(PhotoEntity photo) {
+        String fileName = Paths.get(photo.getFilePath()).getFileName().toString();
+        return getLayout().resolve(getPhotosDirectory(), fileName, photo.getId(), photo.getDownloadDate());
+    }
+
+    /**
+     * Move every photo into the configured layout, updating file paths one batch at a time.
+     * Each photo stays in its own photos directory, so every move is a rename on one volume.
+     */
+    @Async
+    public void migrateToCurrentLayout() {
+        if (!migrationRunning.compareAndSet(false, true)) {
+            logger.warn("Photo layout migration already running");
+            return;
+        }
+
+        PhotoLayout layout = getLayout();
+        Set<Path> photosDirs = new LinkedHashSet<>();
+        MigrationStatus status = new MigrationStatus();
+        status.setLayout(layout.name());
+        status.setRunning(true);
+        status.setStartTime(LocalDateTime.now());
+        migrationStatus = status;
+
+        logger.info("Migrating photos to {} layout", layout);
+
+        try {
+            String lastId = "";
+            while (true) {
+                List<Object[]> rows = photoRepository.findFileLocationsAfter(lastId, Limit.of(MIGRATION_BATCH_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                Map<String, String> movedPaths = new LinkedHashMap<>();
+                for (Object[] row : rows) {
+                    String photoId = (String) row[0];
+                    String filePath = (String) row[1];
+                    LocalDateTime downloadDate = (LocalDateTime) row[2];
+                    lastId = photoId;
+                    status.setProcessed(status.getProcessed() + 1);
+
+                    File current = resolvePhotoFile(photoId, filePath, downloadDate);
+                    if (current == null) {
+                        status.setMissing(status.getMissing() + 1);
+                        continue;
+                    }
+
+                    Path photosDir = photosRoot(current.toPath());
+                    photosDirs.add(photosDir);
+                    Path target = layout.resolve(photosDir, current.getName(), photoId, downloadDate);
+                    try {
+                        if (!current.toPath().equals(target)) {
+                            movePhoto(current.toPath(), target);
+                            status.setMoved(status.getMoved() + 1);
+                        }
+                        if (!target.toString().equals(filePath)) {
+                            movedPaths.put(photoId, target.toString());
+                        }
+                    } catch (IOException e) {
+                        status.setFailed(status.getFailed() + 1);
+                        logger.warn("Failed to move photo {} to {}: {}", photoId, target, e.getMessage());
+                    }
+                }
+
+                if (!movedPaths.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(tx ->
+                        movedPaths.forEach(photoRepository::updateFilePath));
+                }
+                logger.info("Layout migration: {} processed, {} moved", status.getProcessed(), status.getMoved());
+            }
+
+            for (Path photosDir : photosDirs) {
+                pruneEmptyDirectories(photosDir);
+            }
+            logger.info("Photo layout migration finished: {} processed, {} moved, {} missing, {} failed",
+                status.getProcessed(), status.getMoved(), status.getMissing(), status.getFailed());
+        } catch (Exception e) {
+            status.setError(e.getMessage());
+            logger.error("Photo layout migration failed", e);
+        } finally {
+            status.setRunning(false);
+            status.setEndTime(LocalDateTime.now());
+            migrationRunning.set(false);
+        }
+    }
+
+    public boolean isMigrationRunning() {
+        return migrationRunning.get();
+    }
+
+    public Map<String, Object> getMigrationStatus() {
+        MigrationStatus status = migrationStatus;
+        Map<String, Object> result = new HashMap<>();
+        result.put("layout", getLayout().name());
+        result.put("photosDirectory", getPhotosDirectory().toString());
+        result.put("running", status.isRunning());
+        result.put("migratedLayout", status.getLayout());
+        result.put("processed", status.getProcessed());
+        result.put("moved", status.getMoved());
+        result.put("missing", status.getMissing());
+        result.put("failed", status.getFailed());
+        result.put("startTime", status.getStartTime());
+        result.put("endTime", status.getEndTime());
+        result.put("error", status.getError());
+        return result;
+    }
+
+    private void movePhoto(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            // Same volume, so this is a rename; hard links into the blob store stay intact
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void pruneEmptyDirectories(Path photosDir) throws IOException {
+        if (!Files.isDirectory(photosDir)) {
+            return;
+        }
+        try (var paths = Files.walk(photosDir)) {
+            paths.sorted((a, b) -> b.getNameCount() - a.getNameCount())
+                .filter(path -> !path.equals(photosDir) && Files.isDirectory(path))
+                .forEach(dir -> {
+                    try (var entries = Files.list(dir)) {
+                        if (entries.findAny().isEmpty()) {
+                            Files.delete(dir);
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Could not prune {}: {}", dir, e.getMessage());
+                    }
+                });
+        }
+    }
+
+    private static class MigrationStatus {
+        private String layout;
+        private boolean running;
+        private long processed;
+        private long moved;
+        private long missing;
+        private long failed;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private String error;
+
+        public String getLayout() {
+            return layout;
+        }
+
+        public void setLayout(String layout) {
+            this.layout = layout;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public void setRunning(boolean running) {
+            this.running = running;
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public void setProcessed(long processed) {
+            this.processed = processed;
+        }
+
+        public long getMoved() {
+            return moved;
+        }
+
+        public void setMoved(long moved) {
+            this.moved = moved;
+        }
+
+        public long getMissing() {
+            return missing;
+        }
+
+        public void setMissing(long missing) {
+            this.missing = missing;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public void setFailed(long failed) {
+            this.failed = failed;
+        }
+
+        public LocalDateTime getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(LocalDateTime startTime) {
+            this.startTime = startTime;
+        }
+
+        public LocalDateTime getEndTime() {
+            return endTime;
+        }
+
+        public void setEndTime(LocalDateTime endTime) {
+            this.endTime = endTime;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -2,20 +2,29 @@ package de.dittnet.unsplashDownloader.service;
 
 import de.dittnet.unsplashDownloader.entity.PhotoEntity;
 import de.dittnet.unsplashDownloader.entity.PhotoTagEntity;
+import de.dittnet.unsplashDownloader.model.CatalogEntry;
 import de.dittnet.unsplashDownloader.model.Photo;
+import de.dittnet.unsplashDownloader.model.PhotoCard;
 import de.dittnet.unsplashDownloader.model.TagStats;
 import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,45 +32,109 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class PhotoService {
+    private static final String INSERT_PHOTO_SQL =
+        "INSERT INTO photos (id, title, description, file_path, photographer_name, photographer_username, " +
+        "download_date, unsplash_url, image_width, image_height, color, color_l, color_a, color_b, color_bucket, " +
+        "likes, perceptual_hash, content_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TAG_SQL =
+        "INSERT INTO photo_tags (photo_id, tag_title, tag_type) VALUES (?, ?, ?)";
     
     @Autowired
     private PhotoRepository photoRepository;
     
+    @Autowired
+    private CollectionCounterService counterService;
+    
+    @Autowired
+    private PopularTagService popularTagService;
+    
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+    
+    @Autowired
+    private PhotoLayoutService photoLayoutService;
+    
+    @Autowired
+    private SeenPhotoService seenPhotoService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     public void savePhoto(Photo photo, String filePath, String username) {
-        PhotoEntity entity = new PhotoEntity();
-        entity.setId(photo.getId());
-        entity.setDescription(photo.getDescription());
-        entity.setTitle(photo.getTitle());
-        entity.setFilePath(filePath);
-        entity.setDownloadDate(LocalDateTime.now());
-        
-        if (photo.getUser() != null) {
-            entity.setPhotographerName(photo.getUser().getName());
-            entity.setPhotographerUsername(photo.getUser().getUsername());
-        }
-        
-        if (photo.getUrls() != null) {
-            entity.setUnsplashUrl(photo.getUrls().getFull());
-        }
+        savePhoto(photo, filePath, username, null, null);
+    }
+    
+    public void savePhoto(Photo photo, String filePath, String username, Long perceptualHash, String contentHash) {
+        CatalogEntry entry = CatalogEntry.fromDownload(photo, filePath, perceptualHash, contentHash);
+        meterRegistry.timer("unsplash.db.save").record(() -> persistPhoto(entry));
+    }
+    
+    private void persistPhoto(CatalogEntry entry) {
+        // Re-saving an existing photo replaces it, so take it and its tag rows out of the counters first
+        photoRepository.findByIdWithTags(entry.getId()).ifPresent(existing -> {
+            photoRepository.deleteTagsByPhotoId(existing.getId());
+            counterService.recordPhotoRemoved(existing.getPhotographerName(), tagTitles(existing.getTags()));
+            if (existing.getPerceptualHash() != null) {
+                duplicateDetectionService.unregister(existing.getId(), existing.getPerceptualHash());
+            }
+        });
         
-        entity.setImageWidth(photo.getWidth());
-        entity.setImageHeight(photo.getHeight());
-        entity.setColor(photo.getColor());
-        entity.setLikes(photo.getLikes());
+        PhotoEntity entity = new PhotoEntity();
+        entity.setId(entry.getId());
+        entity.setDescription(entry.getDescription());
+        entity.setTitle(entry.getTitle());
+        entity.setFilePath(entry.getFilePath());
+        entity.setDownloadDate(entry.getDownloadDate());
+        entity.setPhotographerName(entry.getPhotographerName());
+        entity.setPhotographerUsername(entry.getPhotographerUsername());
+        entity.setUnsplashUrl(entry.getUnsplashUrl());
+        entity.setImageWidth(entry.getImageWidth());
+        entity.setImageHeight(entry.getImageHeight());
+        entity.setColor(entry.getColor());
+        ColorIndexService.applyColorIndex(entity);
+        entity.setLikes(entry.getLikes());
+        entity.setPerceptualHash(entry.getPerceptualHash());
+        entity.setContentHash(entry.getContentHash());
         
         // Save the photo first
         photoRepository.save(entity);
         
         // Save tags
-        if (photo.getTags() != null && !photo.getTags().isEmpty()) {
+        if (entry.getTags() != null && !entry.getTags().isEmpty()) {
             Set<PhotoTagEntity> tagEntities = new HashSet<>();
-            for (Photo.Tag tag : photo.getTags()) {
+            for (Photo.Tag tag : entry.getTags()) {
                 PhotoTagEntity tagEntity = new PhotoTagEntity(entity, tag.getTitle(), tag.getType());
                 tagEntities.add(tagEntity);
             }
             entity.setTags(tagEntities);
             photoRepository.save(entity);
         }
+        
+        counterService.recordPhotoAdded(entity.getPhotographerName(), tagTitles(entity.getTags()));
+        seenPhotoService.register(entity.getId());
+        if (entity.getPerceptualHash() != null) {
+            duplicateDetectionService.register(entity.getId(), entity.getPerceptualHash());
+        }
+    }
+    
+    /**
+     * IDs of stored photos that look like the same image as the given perceptual hash
+     */
+    public List<String> findNearDuplicates(long perceptualHash) {
+        return duplicateDetectionService.findNearDuplicates(perceptualHash);
+    }
+    
+    public List<String> findNearDuplicatesOf(String id) {
+        Optional<PhotoEntity> photo = photoRepository.findById(id);
+        if (photo.isEmpty() || photo.get().getPerceptualHash() == null) {
+            return List.of();
+        }
+        return duplicateDetectionService.findNearDuplicates(photo.get().getPerceptualHash()).stream()
+            .filter(duplicateId -> !duplicateId.equals(id))
+            .collect(Collectors.toList());
     }
     
     public Page<PhotoEntity> getAllPhotos(Pageable pageable) {
@@ -91,6 +164,61 @@ public class PhotoService {
         return photoRepository.findAllByOrderByLikesDesc(pageable);
     }
     
+    public Page<PhotoCard> getPhotoCards(Pageable pageable) {
+        return withTags(photoRepository.findAllCards(pageable));
+    }
+    
+    public Page<PhotoCard> searchPhotoCards(String search, Pageable pageable) {
+        if (search == null || search.trim().isEmpty()) {
+            return getPhotoCards(pageable);
+        }
+        return withTags(photoRepository.searchCards(search.trim(), pageable));
+    }
+    
+    public Page<PhotoCard> getPhotoCardsByPhotographer(String photographer, Pageable pageable) {
+        return withTags(photoRepository.findCardsByPhotographer(photographer, pageable));
+    }
+    
+    public Page<PhotoCard> getPhotoCardsByTag(String tag, Pageable pageable) {
+        return withTags(photoRepository.findCardsByTag(tag, pageable));
+    }
+    
+    public Page<PhotoCard> getPhotoCardsByColor(String color, Pageable pageable) {
+        // Full hex colors use the color buckets; partial input falls back to substring matching
+        int[] lab = ColorIndexService.toLab(color);
+        if (lab != null) {
+            return withTags(photoRepository.findCardsBySimilarColor(ColorIndexService.neighbouringBuckets(lab),
+                lab[0], lab[1], lab[2], ColorIndexService.DEFAULT_COLOR_TOLERANCE, pageable));
+        }
+        return withTags(photoRepository.findCardsByColor(color, pageable));
+    }
+    
+    public Page<PhotoCard> getPhotoCardsByLikes(Pageable pageable) {
+        return withTags(photoRepository.findCardsOrderByLikesDesc(pageable));
+    }
+    
+    /**
+     * Fill in the tags for every card on the page with a single IN query
+     */
+    private Page<PhotoCard> withTags(Page<PhotoCard> cards) {
+        if (!cards.hasContent()) {
+            return cards;
+        }
+        
+        Map<String, PhotoCard> cardsById = new HashMap<>();
+        for (PhotoCard card : cards.getContent()) {
+            cardsById.put(card.getId(), card);
+        }
+        
+        for (Object[] row : photoRepository.findCardTagsByPhotoIds(cardsById.keySet())) {
+            PhotoCard card = cardsById.get((String) row[0]);
+            if (card != null && row[2] != null) {
+                card.getTags().add(new PhotoCard.Tag((Long) row[1], (String) row[2], (String) row[3]));
+            }
+        }
+        return cards;
+    }
+    
     public List<PhotoEntity> getTop100PhotosWithLikes() {
         return photoRepository.findTop100PhotosWithLikes(Limit.of(100));
     }
@@ -103,16 +231,16 @@ public class PhotoService {
         return photoRepository.findAllPhotographers();
     }
     
+    public List<String> getPhotographerNames() {
+        return counterService.getPhotographerNames();
+    }
+    
     public List<String> getAllTags() {
         return photoRepository.findAllTags();
     }
     
     public List<TagStats> getPopularTags(int limit) {
-        List<Object[]> results = photoRepository.findPopularTagsWithCount();
-        return results.stream()
-            .limit(limit)
-            .map(row -> new TagStats((String) row[0], ((Number) row[1]).longValue()))
-            .collect(Collectors.toList());
+        return popularTagService.getTopTags(limit);
     }
     
     @Transactional
@@ -120,8 +248,10 @@ public class PhotoService {
         Optional<PhotoEntity> photoOpt = photoRepository.findById(photoId);
         if (photoOpt.isPresent()) {
             PhotoEntity photo = photoOpt.get();
+            List<String> oldTagTitles = tagTitles(photo.getTags());
             
-            // Clear existing tags
+            // Delete the existing tag rows; clearing the collection alone leaves them in the table
+            photoRepository.deleteTagsByPhotoId(photoId);
             if (photo.getTags() != null) {
                 photo.getTags().clear();
             }
@@ -137,11 +267,20 @@ public class PhotoService {
             }
             
             photoRepository.save(photo);
+            counterService.recordTagsChanged(oldTagTitles, tagTitles(photo.getTags()));
         }
     }
     
     public long getTotalPhotosCount() {
-        return photoRepository.count();
+        return counterService.getTotalPhotos();
+    }
+    
+    public int getTotalPhotographersCount() {
+        return counterService.getTotalPhotographers();
+    }
+    
+    public int getTotalTagsCount() {
+        return counterService.getTotalTags();
     }
     
     public long getPhotosCountByPhotographer(String photographer) {
@@ -152,17 +291,36 @@ public class PhotoService {
         return photoRepository.existsById(id);
     }
     
+    /**
+     * Which of the given photo IDs are already in the catalog. IDs the seen filter rules out
+     * never reach the database; the rest are checked in one query.
+     */
+    public Set<String> findExistingIds(Collection<String> ids) {
+        return seenPhotoService.findSeen(ids);
+    }
+    
     public void deletePhoto(String id) {
-        photoRepository.deleteById(id);
+        Optional<PhotoEntity> photo = photoRepository.findByIdWithTags(id);
+        if (photo.isPresent()) {
+            photoRepository.delete(photo.get());
+            counterService.recordPhotoRemoved(photo.get().getPhotographerName(), tagTitles(photo.get().getTags()));
+            if (photo.get().getPerceptualHash() != null) {
+                duplicateDetectionService.unregister(id, photo.get().getPerceptualHash());
+            }
+        }
+    }
+    
+    /**
+     * When a cataloged photo was downloaded, which places it in the year-month layout
+     */
+    public LocalDateTime getDownloadDate(String id) {
+        return photoRepository.findDownloadDateById(id).orElse(null);
     }
     
     public File getPhotoFile(String id) {
         Optional<PhotoEntity> photo = photoRepository.findById(id);
-        if (photo.isPresent() && photo.get().getFilePath() != null) {
-            File file = new File(photo.get().getFilePath());
-            if (file.exists()) {
-                return file;
-            }
+        if (photo.isPresent()) {
+            return photoLayoutService.resolvePhotoFile(photo.get());
         }
         return null;
     }
@@ -175,7 +333,99 @@ public class PhotoService {
         return photoRepository.findById(id);
     }
     
-    public List<PhotoEntity> getAllPhotosForSync() {
-        return photoRepository.findAll();
+    /**
+     * Write-behind path for downloads: a micro-batch of freshly downloaded photos goes in through
+     * the batched insert in one transaction. Photos already in the catalog were downloaded again
+     * and replace their rows, like a single save does.
+     */
+    public int savePhotoBatch(List<CatalogEntry> entries) {
+        return meterRegistry.timer("unsplash.db.save.batch").record(() -> {
+            Map<String, CatalogEntry> byId = new LinkedHashMap<>();
+            for (CatalogEntry entry : entries) {
+                if (entry.getId() != null) {
+                    byId.put(entry.getId(), entry);
+                }
+            }
+            Set<String> existing = seenPhotoService.findSeen(byId.keySet());
+            for (String id : existing) {
+                persistPhoto(byId.remove(id));
+            }
+            return existing.size() + insertPhotoBatch(new ArrayList<>(byId.values()));
+        });
+    }
+    
+    /**
+     * Batched insert path for bulk imports. Photos and tags go in as JDBC batches and photos
+     * that already exist are skipped. Returns the number of photos inserted.
+     */
+    public int insertPhotoBatch(List<CatalogEntry> entries) {
+        Map<String, CatalogEntry> byId = new LinkedHashMap<>();
+        for (CatalogEntry entry : entries) {
+            if (entry.getId() != null) {
+                byId.put(entry.getId(), entry);
+            }
+        }
+        if (byId.isEmpty()) {
+            return 0;
+        }
+        seenPhotoService.findSeen(byId.keySet()).forEach(byId::remove);
+        List<CatalogEntry> fresh = new ArrayList<>(byId.values());
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_PHOTO_SQL, fresh, fresh.size(), (ps, entry) -> {
+            int[] lab = ColorIndexService.toLab(entry.getColor());
+            ps.setString(1, entry.getId());
+            ps.setString(2, entry.getTitle());
+            ps.setString(3, entry.getDescription());
+            ps.setString(4, entry.getFilePath());
+            ps.setString(5, entry.getPhotographerName());
+            ps.setString(6, entry.getPhotographerUsername());
+            ps.setObject(7, entry.getDownloadDate());
+            ps.setString(8, entry.getUnsplashUrl());
+            ps.setObject(9, entry.getImageWidth());
+            ps.setObject(10, entry.getImageHeight());
+            ps.setString(11, entry.getColor());
+            ps.setObject(12, lab != null ? lab[0] : null);
+            ps.setObject(13, lab != null ? lab[1] : null);
+            ps.setObject(14, lab != null ? lab[2] : null);
+            ps.setObject(15, lab != null ? ColorIndexService.colorBucket(lab) : null);
+            ps.setObject(16, entry.getLikes());
+            ps.setObject(17, entry.getPerceptualHash());
+            ps.setString(18, entry.getContentHash());
+        });
+        
+        List<Object[]> tagRows = new ArrayList<>();
+        for (CatalogEntry entry : fresh) {
+            if (entry.getTags() != null) {
+                for (Photo.Tag tag : entry.getTags()) {
+                    tagRows.add(new Object[] {entry.getId(), tag.getTitle(), tag.getType()});
+                }
+            }
+        }
+        if (!tagRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, tagRows);
+        }
+        
+        for (CatalogEntry entry : fresh) {
+            List<String> tags = entry.getTags() == null ? List.of()
+                : entry.getTags().stream().map(Photo.Tag::getTitle).collect(Collectors.toList());
+            counterService.recordPhotoAdded(entry.getPhotographerName(), tags);
+            seenPhotoService.register(entry.getId());
+            if (entry.getPerceptualHash() != null) {
+                duplicateDetectionService.register(entry.getId(), entry.getPerceptualHash());
+            }
+        }
+        return fresh.size();
+    }
+    
+    private static List<String> tagTitles(Set<PhotoTagEntity> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return List.of();
+        }
+        return tags.stream()
+            .map(PhotoTagEntity::getTagTitle)
+            .collect(Collectors.toList());
     }
 }
\ No newline at end of file
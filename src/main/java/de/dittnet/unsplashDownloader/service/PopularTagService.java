@@ -0,0 +1,82 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.model.TagStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Serves the most frequent tags from the live counters in CollectionCounterService.
+ * A bounded min-heap keeps only the current top K entries, and the result is cached
+ * until the next tag write, so repeated page views never touch the database.
+ */
+@Service
+public class PopularTagService {
+
+    // Same ordering as the old GROUP BY query: count descending, then tag name ascending
+    private static final Comparator<Map.Entry<String, Long>> POPULARITY =
+        Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+            .thenComparing(Map.Entry::getKey);
+
+    @Autowired
+    private CollectionCounterService counterService;
+
+    private volatile CachedTopTags cache;
+
+    public List<TagStats> getTopTags(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        long version = counterService.getTagVersion();
+        CachedTopTags cached = cache;
+        if (cached != null && cached.version == version && cached.limit >= limit) {
+            return cached.tags.subList(0, Math.min(limit, cached.tags.size()));
+        }
+
+        List<TagStats> topTags = computeTopTags(counterService.getTagCounts(), limit);
+        cache = new CachedTopTags(version, limit, topTags);
+        return topTags;
+    }
+
+    private static List<TagStats> computeTopTags(Map<String, Long> tagCounts, int limit) {
+        // Min-heap ordered so the least popular of the current top K sits at the head
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(limit + 1, POPULARITY.reversed());
+
+        for (Map.Entry<String, Long> entry : tagCounts.entrySet()) {
+            if (heap.size() < limit) {
+                heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            } else if (POPULARITY.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(heap);
+        entries.sort(POPULARITY);
+
+        List<TagStats> result = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            result.add(new TagStats(entry.getKey(), entry.getValue()));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static class CachedTopTags {
+        private final long version;
+        private final int limit;
+        private final List<TagStats> tags;
+
+        CachedTopTags(long version, int limit, List<TagStats> tags) {
+            this.version = version;
+            this.limit = limit;
+            this.tags = tags;
+        }
+    }
+}
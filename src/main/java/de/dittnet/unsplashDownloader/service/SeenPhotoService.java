@@ -0,0 +1,197 @@
+package de.dittnet.unsplashDownloader.service;
+
+import de.dittnet.unsplashDownloader.repository.PhotoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Global set of photo IDs already in the catalog, shared by every download regardless of
+ * photographer, source or output directory. IDs are kept in an in-memory Bloom filter in
+ * front of the primary key index: a miss means the photo is definitely new and costs no
+ * query, a hit is confirmed against the database in one batched lookup. Deleted photos
+ * stay in the filter and are simply not confirmed.
+ */
+@Service
+public class SeenPhotoService {
+    private static final Logger logger = LoggerFactory.getLogger(SeenPhotoService.class);
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MIN_CAPACITY = 1 << 16;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.seen-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter filter;
+    private int size;
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    /**
+     * Which of the given photo IDs are already in the catalog. Only IDs the filter cannot
+     * rule out reach the database.
+     */
+    public Set<String> findSeen(Collection<String> ids) {
+        Set<String> seen = new HashSet<>();
+        if (ids.isEmpty()) {
+            return seen;
+        }
+
+        List<String> candidates = new ArrayList<>();
+        synchronized (this) {
+            ensureLoaded();
+            for (String id : ids) {
+                if (filter.mightContain(id)) {
+                    candidates.add(id);
+                }
+            }
+        }
+
+        int ruledOut = ids.size() - candidates.size();
+        if (ruledOut > 0) {
+            meterRegistry.counter("unsplash.seen.lookups", "result", "new").increment(ruledOut);
+        }
+        if (candidates.isEmpty()) {
+            return seen;
+        }
+
+        seen.addAll(photoRepository.findExistingIds(candidates));
+        meterRegistry.counter("unsplash.seen.lookups", "result", "seen").increment(seen.size());
+        if (candidates.size() > seen.size()) {
+            meterRegistry.counter("unsplash.seen.lookups", "result", "false_positive")
+                .increment(candidates.size() - seen.size());
+        }
+        return seen;
+    }
+
+    public void register(String photoId) {
+        AfterCommit.run(() -> add(photoId));
+    }
+
+    public synchronized int getIndexedPhotoCount() {
+        ensureLoaded();
+        return size;
+    }
+
+    private synchronized void add(String photoId) {
+        ensureLoaded();
+        filter.put(photoId);
+        size++;
+        // Past its capacity the false positive rate climbs; rebuild at twice the size
+        if (size > filter.capacity) {
+            rebuild();
+        }
+    }
+
+    private synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        rebuild();
+        loaded = true;
+        logger.info("Loaded {} photo IDs into the seen filter ({} KB)", size, filter.bits.length * 8 / 1024);
+    }
+
+    private void rebuild() {
+        long count = photoRepository.count();
+        filter = new BloomFilter((int) Math.max(MIN_CAPACITY, Math.min(Integer.MAX_VALUE / 32, count * 2)),
+            falsePositiveRate);
+        size = 0;
+
+        // Keyset paging keeps memory flat on large catalogs
+        String lastId = "";
+        while (true) {
+            List<String> batch = photoRepository.findIdsAfter(lastId, Limit.of(LOAD_BATCH_SIZE));
+            for (String id : batch) {
+                filter.put(id);
+            }
+            size += batch.size();
+            if (batch.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1);
+        }
+    }
+
+    /**
+     * Bloom filter over photo ID strings using double hashing of a 64-bit FNV-1a hash
+     */
+    private static class BloomFilter {
+        private final long[] bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final int capacity;
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.bits = new long[(int) ((optimalBits + 63) / 64)];
+            this.bitCount = bits.length * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        }
+
+        void put(String id) {
+            long hash = hash(id);
+            long h1 = hash;
+            long h2 = mix(hash);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String id) {
+            long hash = hash(id);
+            long h1 = hash;
+            long h2 = mix(hash);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String id) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < id.length(); i++) {
+                hash ^= id.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        // Second, independent-enough hash for double hashing (MurmurHash3 finalizer)
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb3f9e2b9b5c3L;
+            hash ^= hash >>> 33;
+            return hash | 1;
+        }
+    }
+}
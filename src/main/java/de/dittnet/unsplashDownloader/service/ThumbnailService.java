@@ -1,7 +1,13 @@
 package de.dittnet.unsplashDownloader.service;
 
+import de.dittnet.unsplashDownloader.config.ExecutorConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,17 +19,64 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class ThumbnailService {
     
     private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
-    private static final int THUMBNAIL_SIZE = 300;
+    public static final int THUMBNAIL_SIZE = 300;
     
     @Value("${app.photos.thumbnails-path:./data/thumbnails}")
     private String thumbnailsPath;
     
+    @Autowired
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    
+    // Bounded pool for image decoding; without one (e.g. outside Spring) thumbnails are made inline
+    @Autowired(required = false)
+    @Qualifier(ExecutorConfig.IMAGE_EXECUTOR)
+    private Executor imageExecutor;
+    
+    public static String thumbnailFileName(String photoId) {
+        return photoId + "_thumb.jpg";
+    }
+    
+    public String getThumbnailsPath() {
+        return thumbnailsPath;
+    }
+    
     public File generateThumbnail(String photoId, File originalFile) {
+        // Check if thumbnail already exists (it may have been prefetched during the download)
+        File existing = new File(thumbnailsPath, thumbnailFileName(photoId));
+        if (existing.exists()) {
+            return existing;
+        }
+        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        File thumbnail = createOnImageExecutor(photoId, originalFile);
+        sample.stop(meterRegistry.timer("unsplash.thumbnail.generate", "outcome", thumbnail != null ? "success" : "failed"));
+        return thumbnail;
+    }
+    
+    /**
+     * Decoding and scaling run on the bounded image pool; the request thread just waits
+     */
+    private File createOnImageExecutor(String photoId, File originalFile) {
+        if (imageExecutor == null) {
+            return createThumbnail(photoId, originalFile);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> createThumbnail(photoId, originalFile), imageExecutor).join();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image pool is saturated, serving photo {} without a thumbnail", photoId);
+            return null;
+        }
+    }
+    
+    private File createThumbnail(String photoId, File originalFile) {
         try {
             // Create thumbnails directory if it doesn't exist
             Path thumbnailDir = Paths.get(thumbnailsPath);
@@ -32,12 +85,7 @@ public class ThumbnailService {
             }
             
             // Generate thumbnail file path
-            File thumbnailFile = new File(thumbnailDir.toFile(), photoId + "_thumb.jpg");
-            
-            // Check if thumbnail already exists
-            if (thumbnailFile.exists()) {
-                return thumbnailFile;
-            }
+            File thumbnailFile = new File(thumbnailDir.toFile(), thumbnailFileName(photoId));
             
             // Read original image
             BufferedImage originalImage = ImageIO.read(originalFile);
@@ -89,12 +137,12 @@ public class ThumbnailService {
     }
     
     public File getThumbnail(String photoId) {
-        File thumbnailFile = new File(thumbnailsPath, photoId + "_thumb.jpg");
+        File thumbnailFile = new File(thumbnailsPath, thumbnailFileName(photoId));
         return thumbnailFile.exists() ? thumbnailFile : null;
     }
     
     public boolean deleteThumbnail(String photoId) {
-        File thumbnailFile = new File(thumbnailsPath, photoId + "_thumb.jpg");
+        File thumbnailFile = new File(thumbnailsPath, thumbnailFileName(photoId));
         if (thumbnailFile.exists()) {
             boolean deleted = thumbnailFile.delete();
             if (deleted) {
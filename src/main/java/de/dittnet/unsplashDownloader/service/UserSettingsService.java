@@ -1,6 +1,7 @@
 package de.dittnet.unsplashDownloader.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.dittnet.unsplashDownloader.StateStore;
 import de.dittnet.unsplashDownloader.config.StorageConfig;
 import de.dittnet.unsplashDownloader.model.UserSettings;
 import org.slf4j.Logger;
@@ -18,6 +19,7 @@ import java.util.Set;
 @Service
 public class UserSettingsService {
     private static final Logger logger = LoggerFactory.getLogger(UserSettingsService.class);
+    private static final String SETTINGS_KEY = "user_settings";
     
     private final ObjectMapper objectMapper;
     private final StorageConfig storageConfig;
@@ -109,6 +111,41 @@ public class UserSettingsService {
         updateLastOutputPath(outputPath);
     }
     
+    /**
+     * Adds a photographer to the list kept up to date by the scheduled sync
+     */
+    public boolean followUsername(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return false;
+        }
+        
+        List<String> followed = getSettings().getFollowedUsernames();
+        for (String existing : followed) {
+            if (existing.equalsIgnoreCase(username.trim())) {
+                return false;
+            }
+        }
+        followed.add(username.trim());
+        saveSettings();
+        return true;
+    }
+    
+    public boolean unfollowUsername(String username) {
+        if (username == null) {
+            return false;
+        }
+        
+        boolean removed = getSettings().getFollowedUsernames().removeIf(existing -> existing.equalsIgnoreCase(username.trim()));
+        if (removed) {
+            saveSettings();
+        }
+        return removed;
+    }
+    
+    public List<String> getFollowedUsernames() {
+        return getSettings().getFollowedUsernames();
+    }
+    
     public List<String> getRecentUsernames() {
         return getSettings().getRecentUsernames();
     }
@@ -129,10 +166,11 @@ public class UserSettingsService {
         // Try to load from system-wide settings first (for bootstrap)
         try {
             File systemSettingsFile = new File(storageConfig.getSystemUserSettingsPath());
-            if (systemSettingsFile.exists()) {
-                settings = objectMapper.readValue(systemSettingsFile, UserSettings.class);
+            UserSettings systemSettings = readSettings(systemSettingsFile);
+            if (systemSettings != null) {
+                settings = systemSettings;
                 currentSettingsPath = systemSettingsFile.getAbsolutePath();
-                logger.info("Loaded system user settings from {}", currentSettingsPath);
+                logger.info("Loaded system user settings from {}", systemSettingsFile.getParent());
                 
                 // If we have a last output path, switch to user-defined directory
                 if (settings.getLastOutputPath() != null && !settings.getLastOutputPath().isEmpty()) {
@@ -147,10 +185,11 @@ public class UserSettingsService {
         // Fall back to current directory settings
         try {
             File settingsFile = new File(storageConfig.getUserSettingsPath());
-            if (settingsFile.exists()) {
-                settings = objectMapper.readValue(settingsFile, UserSettings.class);
+            UserSettings localSettings = readSettings(settingsFile);
+            if (localSettings != null) {
+                settings = localSettings;
                 currentSettingsPath = settingsFile.getAbsolutePath();
-                logger.info("Loaded user settings from {}", currentSettingsPath);
+                logger.info("Loaded user settings from {}", settingsFile.getParent());
             } else {
                 settings = new UserSettings();
                 settings.setLastOutputPath(storageConfig.getPhotosDirectory());
@@ -165,30 +204,40 @@ public class UserSettingsService {
         }
     }
     
+    /**
+     * Settings from the state store next to the given settings file, or from the JSON file itself
+     * when it was written by an earlier version. Null if neither exists.
+     */
+    private UserSettings readSettings(File settingsFile) throws IOException {
+        File dir = settingsFile.getParentFile();
+        if (new File(dir, StateStore.FILE_NAME).exists()) {
+            byte[] stored = StateStore.open(dir).get(SETTINGS_KEY);
+            if (stored != null) {
+                return objectMapper.readValue(stored, UserSettings.class);
+            }
+        }
+        if (settingsFile.exists()) {
+            return objectMapper.readValue(settingsFile, UserSettings.class);
+        }
+        return null;
+    }
+    
     private void saveSettings() {
         try {
             File settingsFile = new File(currentSettingsPath != null ? currentSettingsPath : storageConfig.getUserSettingsPath());
+            byte[] value = objectMapper.writeValueAsBytes(settings);
+            StateStore.open(settingsFile.getAbsoluteFile().getParentFile()).put(SETTINGS_KEY, value);
+            logger.debug("Saved user settings to {}", settingsFile.getParent());
             
-            // Ensure parent directory exists
-            File parentDir = settingsFile.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(settingsFile, settings);
-            logger.debug("Saved user settings to {}", settingsFile.getAbsolutePath());
-            
-            // Also save to system-wide location for bootstrap
-            try {
-                File systemSettingsFile = new File(storageConfig.getSystemUserSettingsPath());
-                File systemParentDir = systemSettingsFile.getParentFile();
-                if (systemParentDir != null && !systemParentDir.exists()) {
-                    systemParentDir.mkdirs();
+            // Also save to system-wide location for bootstrap, unless that is where they already went
+            File systemSettingsFile = new File(storageConfig.getSystemUserSettingsPath());
+            if (!systemSettingsFile.getAbsoluteFile().getParentFile().equals(settingsFile.getAbsoluteFile().getParentFile())) {
+                try {
+                    StateStore.open(systemSettingsFile.getAbsoluteFile().getParentFile()).put(SETTINGS_KEY, value);
+                    logger.debug("Saved system user settings to {}", systemSettingsFile.getParent());
+                } catch (IOException e) {
+                    logger.warn("Failed to save system user settings: {}", e.getMessage());
                 }
-                objectMapper.writerWithDefaultPrettyPrinter().writeValue(systemSettingsFile, settings);
-                logger.debug("Saved system user settings to {}", systemSettingsFile.getAbsolutePath());
-            } catch (IOException e) {
-                logger.warn("Failed to save system user settings: {}", e.getMessage());
             }
         } catch (IOException e) {
             logger.error("Failed to save user settings", e);
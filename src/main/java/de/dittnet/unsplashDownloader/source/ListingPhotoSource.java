@@ -0,0 +1,81 @@
+package de.dittnet.unsplashDownloader.source;
+
+import de.dittnet.unsplashDownloader.model.Photo;
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Endpoints that answer with a plain JSON array of photos: /users/{username}/photos,
+ * /users/{username}/likes, /collections/{id}/photos and /topics/{slug}/photos.
+ */
+class ListingPhotoSource implements PhotoSource {
+    private final String key;
+    // e.g. "users/jane"; the listing is {resource}/{listing}
+    private final String resourcePath;
+    private final String listing;
+    private final String totalField;
+    private final boolean newestFirst;
+    private final String fileOwner;
+
+    ListingPhotoSource(String key, String resourcePath, String listing, String totalField, boolean newestFirst,
+                       String fileOwner) {
+        this.key = key;
+        this.resourcePath = resourcePath;
+        this.listing = listing;
+        this.totalField = totalField;
+        this.newestFirst = newestFirst;
+        this.fileOwner = fileOwner;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public HttpUrl pageUrl(HttpUrl apiBase, int page, int perPage) {
+        HttpUrl.Builder url = apiBase.newBuilder()
+            .addPathSegments(resourcePath)
+            .addPathSegment(listing)
+            .addQueryParameter("page", String.valueOf(page))
+            .addQueryParameter("per_page", String.valueOf(perPage));
+        if (newestFirst) {
+            url.addQueryParameter("order_by", "latest");
+        }
+        return url.build();
+    }
+
+    @Override
+    public List<Photo> parsePage(InputStream body) throws IOException {
+        return PhotoJson.readPhotoArray(body);
+    }
+
+    @Override
+    public HttpUrl totalUrl(HttpUrl apiBase) {
+        return apiBase.newBuilder().addPathSegments(resourcePath).build();
+    }
+
+    @Override
+    public String getTotalField() {
+        return totalField;
+    }
+
+    @Override
+    public boolean isNewestFirst() {
+        return newestFirst;
+    }
+
+    @Override
+    public String fileOwner(Photo photo) {
+        // A user's own photos keep the username as it was requested, as they always have
+        return fileOwner != null ? fileOwner : PhotoSource.super.fileOwner(photo);
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
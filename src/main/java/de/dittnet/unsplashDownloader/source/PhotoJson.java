@@ -0,0 +1,109 @@
+package de.dittnet.unsplashDownloader.source;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.dittnet.unsplashDownloader.model.Photo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reads of Unsplash API responses straight from the response body. Photos are bound
+ * one at a time as the parser reaches them, and everything the model does not map is skipped
+ * token by token without being built. The mapper and readers are configured once and shared,
+ * as they are thread-safe.
+ */
+public final class PhotoJson {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectReader PHOTO_READER = MAPPER.readerFor(Photo.class);
+
+    private PhotoJson() {
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    public static Photo readPhoto(InputStream body) throws IOException {
+        return PHOTO_READER.readValue(body);
+    }
+
+    /**
+     * Photos of a response that is a plain JSON array
+     */
+    static List<Photo> readPhotoArray(InputStream body) throws IOException {
+        List<Photo> photos = new ArrayList<>();
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Unexpected photo listing, expected a JSON array");
+            }
+            readPhotos(parser, photos::add);
+        }
+        return photos;
+    }
+
+    /**
+     * Photos of the array under a top-level field, e.g. the results of a search
+     */
+    static List<Photo> readPhotoArray(InputStream body, String field) throws IOException {
+        List<Photo> photos = new ArrayList<>();
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            if (!seekField(parser, field) || parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Unexpected response, no " + field + " array");
+            }
+            readPhotos(parser, photos::add);
+        }
+        return photos;
+    }
+
+    /**
+     * A top-level integer field such as total_photos, without binding the rest of the object
+     */
+    public static Integer readIntField(InputStream body, String field) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            if (!seekField(parser, field) || parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+                return null;
+            }
+            return parser.getIntValue();
+        }
+    }
+
+    /**
+     * Binds the elements of the array the parser is positioned at, handing each photo on as
+     * soon as it is complete
+     */
+    private static void readPhotos(JsonParser parser, Consumer<Photo> consumer) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            consumer.accept(PHOTO_READER.readValue(parser));
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new IOException("Unexpected element in photo listing: " + parser.currentToken());
+        }
+    }
+
+    /**
+     * Moves to the value of a field of the top-level object, skipping the values of all other fields
+     */
+    private static boolean seekField(JsonParser parser, String field) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (field.equals(parser.currentName())) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package de.dittnet.unsplashDownloader.source;
+
+import de.dittnet.unsplashDownloader.model.Photo;
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * A paged listing of photos a download job works through: a user's photos or likes, a
+ * collection, a topic or a search. All sources feed the same download pipeline.
+ */
+public interface PhotoSource {
+
+    /**
+     * Identifies the source in download state, sync watermarks and job IDs, e.g. "collection:123".
+     * A user's own photos keep the plain username.
+     */
+    String getKey();
+
+    /**
+     * URL of one listing page
+     */
+    HttpUrl pageUrl(HttpUrl apiBase, int page, int perPage);
+
+    /**
+     * The abbreviated photos of a listing page response, streamed from the response body
+     */
+    List<Photo> parsePage(InputStream body) throws IOException;
+
+    /**
+     * URL of the resource whose {@link #getTotalField()} holds the number of photos
+     */
+    HttpUrl totalUrl(HttpUrl apiBase);
+
+    String getTotalField();
+
+    /**
+     * Whether the listing is newest first, so an incremental sync may stop at its watermark
+     */
+    boolean isNewestFirst();
+
+    /**
+     * Username part of the photo's file name, {username}_{id}.jpg
+     */
+    default String fileOwner(Photo photo) {
+        if (photo.getUser() != null && photo.getUser().getUsername() != null) {
+            return photo.getUser().getUsername();
+        }
+        return "unsplash";
+    }
+}
@@ -0,0 +1,90 @@
+package de.dittnet.unsplashDownloader.source;
+
+import java.util.Locale;
+
+/**
+ * Creates photo sources, either directly or from a "type:value" spec such as
+ * "collection:123", "topic:nature", "search:foggy forest" or "likes:jane". A spec without a
+ * type is a username.
+ */
+public final class PhotoSources {
+    public static final String USER = "user";
+    public static final String LIKES = "likes";
+    public static final String COLLECTION = "collection";
+    public static final String TOPIC = "topic";
+    public static final String SEARCH = "search";
+
+    private PhotoSources() {
+    }
+
+    public static PhotoSource user(String username) {
+        String name = requireValue(USER, username);
+        return new ListingPhotoSource(name, "users/" + name, "photos", "total_photos", true, name);
+    }
+
+    /**
+     * Photos a user liked; listed by when they were liked, so syncs walk the whole list
+     */
+    public static PhotoSource likes(String username) {
+        String name = requireValue(LIKES, username);
+        return new ListingPhotoSource(LIKES + ":" + name, "users/" + name, "likes", "total_likes", false, null);
+    }
+
+    /**
+     * Photos of a collection in the curator's order, so syncs walk the whole list
+     */
+    public static PhotoSource collection(String id) {
+        String collectionId = requireValue(COLLECTION, id);
+        return new ListingPhotoSource(COLLECTION + ":" + collectionId, "collections/" + collectionId, "photos",
+            "total_photos", false, null);
+    }
+
+    public static PhotoSource topic(String slug) {
+        String topic = requireValue(TOPIC, slug);
+        return new ListingPhotoSource(TOPIC + ":" + topic, "topics/" + topic, "photos", "total_photos", true, null);
+    }
+
+    public static PhotoSource search(String query) {
+        return new SearchPhotoSource(requireValue(SEARCH, query));
+    }
+
+    public static PhotoSource parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("Photo source is required");
+        }
+        String trimmed = spec.trim();
+        int separator = trimmed.indexOf(':');
+        // Usernames cannot contain a colon, so anything without one is a username
+        if (separator < 0) {
+            return user(trimmed);
+        }
+
+        String value = trimmed.substring(separator + 1);
+        switch (trimmed.substring(0, separator).trim().toLowerCase(Locale.ROOT)) {
+            case USER:
+                return user(value);
+            case LIKES:
+                return likes(value);
+            case COLLECTION:
+                return collection(value);
+            case TOPIC:
+                return topic(value);
+            case SEARCH:
+                return search(value);
+            default:
+                throw new IllegalArgumentException("Unknown photo source: " + spec
+                    + " (expected a username or user:, likes:, collection:, topic: or search:)");
+        }
+    }
+
+    private static String requireValue(String type, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing value for " + type + " source");
+        }
+        String trimmed = value.trim();
+        if (!type.equals(SEARCH) && (trimmed.contains("/") || trimmed.contains(" "))) {
+            throw new IllegalArgumentException("Invalid " + type + ": " + value);
+        }
+        return trimmed;
+    }
+}
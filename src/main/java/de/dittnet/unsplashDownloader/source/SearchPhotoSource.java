@@ -0,0 +1,65 @@
+package de.dittnet.unsplashDownloader.source;
+
+import de.dittnet.unsplashDownloader.model.Photo;
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * /search/photos, newest first. Results come wrapped in {"total": n, "results": [...]}.
+ */
+class SearchPhotoSource implements PhotoSource {
+    private final String query;
+
+    SearchPhotoSource(String query) {
+        this.query = query;
+    }
+
+    @Override
+    public String getKey() {
+        return PhotoSources.SEARCH + ":" + query;
+    }
+
+    @Override
+    public HttpUrl pageUrl(HttpUrl apiBase, int page, int perPage) {
+        return searchUrl(apiBase)
+            .addQueryParameter("page", String.valueOf(page))
+            .addQueryParameter("per_page", String.valueOf(perPage))
+            .build();
+    }
+
+    @Override
+    public List<Photo> parsePage(InputStream body) throws IOException {
+        return PhotoJson.readPhotoArray(body, "results");
+    }
+
+    @Override
+    public HttpUrl totalUrl(HttpUrl apiBase) {
+        // The smallest page still carries the total
+        return searchUrl(apiBase).addQueryParameter("per_page", "1").build();
+    }
+
+    @Override
+    public String getTotalField() {
+        return "total";
+    }
+
+    @Override
+    public boolean isNewestFirst() {
+        return true;
+    }
+
+    private HttpUrl.Builder searchUrl(HttpUrl apiBase) {
+        return apiBase.newBuilder()
+            .addPathSegments("search/photos")
+            .addQueryParameter("query", query)
+            .addQueryParameter("order_by", "latest");
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+}
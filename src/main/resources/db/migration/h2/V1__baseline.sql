@@ -0,0 +1,32 @@
+-- Catalog schema of the last release that let Hibernate create it (ddl-auto=update). Existing
+-- databases already have exactly this and are baselined at this version instead of running it
+-- (spring.flyway.baseline-on-migrate); V2 onwards then applies to them like to new ones.
+
+CREATE TABLE IF NOT EXISTS photos (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    color VARCHAR(255),
+    description TEXT,
+    download_date TIMESTAMP(6),
+    file_path VARCHAR(255),
+    image_height INTEGER,
+    image_width INTEGER,
+    likes INTEGER,
+    photographer_name VARCHAR(255),
+    photographer_username VARCHAR(255),
+    title VARCHAR(255),
+    unsplash_url VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS photo_tags (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tag_title VARCHAR(255),
+    tag_type VARCHAR(255),
+    photo_id VARCHAR(255),
+    -- Same name Hibernate gave the constraint, so fresh and baselined databases match
+    CONSTRAINT FKosc6hwdgbuo9c35svqvwnpffj FOREIGN KEY (photo_id) REFERENCES photos (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_download_date ON photos (download_date);
+CREATE INDEX IF NOT EXISTS idx_photographer_name ON photos (photographer_name);
+CREATE INDEX IF NOT EXISTS idx_likes ON photos (likes);
+CREATE INDEX IF NOT EXISTS idx_color ON photos (color);
@@ -0,0 +1,31 @@
+-- Catalog schema for the PostgreSQL backend, equivalent to db/migration/h2/V1__baseline.sql
+
+CREATE TABLE IF NOT EXISTS photos (
+    id VARCHAR(255) NOT NULL PRIMARY KEY,
+    color VARCHAR(255),
+    description TEXT,
+    download_date TIMESTAMP(6),
+    file_path VARCHAR(255),
+    image_height INTEGER,
+    image_width INTEGER,
+    likes INTEGER,
+    photographer_name VARCHAR(255),
+    photographer_username VARCHAR(255),
+    title VARCHAR(255),
+    unsplash_url VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS photo_tags (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tag_title VARCHAR(255),
+    tag_type VARCHAR(255),
+    photo_id VARCHAR(255),
+    CONSTRAINT FKosc6hwdgbuo9c35svqvwnpffj FOREIGN KEY (photo_id) REFERENCES photos (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_download_date ON photos (download_date);
+CREATE INDEX IF NOT EXISTS idx_photographer_name ON photos (photographer_name);
+CREATE INDEX IF NOT EXISTS idx_likes ON photos (likes);
+CREATE INDEX IF NOT EXISTS idx_color ON photos (color);
+-- H2 indexes foreign keys implicitly, PostgreSQL does not; tags are loaded by photo
+CREATE INDEX IF NOT EXISTS idx_photo_tags_photo_id ON photo_tags (photo_id);
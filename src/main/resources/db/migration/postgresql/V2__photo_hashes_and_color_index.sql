@@ -0,0 +1,11 @@
+-- Same as db/migration/h2/V2__photo_hashes_and_color_index.sql
+
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS color_l INTEGER;
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS color_a INTEGER;
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS color_b INTEGER;
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS color_bucket INTEGER;
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS perceptual_hash BIGINT;
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_color_bucket ON photos (color_bucket);
+CREATE INDEX IF NOT EXISTS idx_content_hash ON photos (content_hash);